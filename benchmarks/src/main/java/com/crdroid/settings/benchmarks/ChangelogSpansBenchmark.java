@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.benchmarks;
+
+import android.text.SpannableStringBuilder;
+
+import com.crdroid.settings.utils.ChangelogSpans;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The span pass of the changelog screen, over a generated changelog laid
+ * out like /system/etc/Changelog.txt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ChangelogSpansBenchmark {
+
+    private static final int COLOR = 0xff1a73e8;
+
+    @Param({ "100", "1000" })
+    public int commits;
+
+    private String mChangelog;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final StringBuilder changelog = new StringBuilder();
+        for (int i = 0; i < commits; i++) {
+            if (i % 20 == 0) {
+                changelog.append("====================\n")
+                        .append(String.format("2025-%02d-%02d", i / 600 % 12 + 1, i / 20 % 28 + 1))
+                        .append("\n====================\n");
+            }
+            if (i % 5 == 0) {
+                changelog.append("\n   * packages/apps/Settings\n");
+            }
+            changelog.append(String.format("%07x", i * 2654435761L & 0xfffffffL))
+                    .append(" Settings: Fix the thing number ").append(i)
+                    .append(" [Committer ").append(i % 13).append("]\n");
+        }
+        mChangelog = changelog.toString();
+    }
+
+    @Benchmark
+    public SpannableStringBuilder format() {
+        return ChangelogSpans.format(mChangelog, COLOR);
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.benchmarks;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.UserHandle;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Settings provider held in memory, one name/value map per table uri.
+ *
+ * Every query and insert spins for the configured latency, to stand in for
+ * the binder round trip to the provider. Like SettingsProvider, a selection
+ * other than "name=?" is refused, and observers of a table are told about
+ * each insert, synchronously here.
+ */
+public class InMemoryContentResolver extends ContentResolver {
+
+    private static final String NAME = "name";
+    private static final String VALUE = "value";
+    private static final String NAME_SELECTION = NAME + "=?";
+
+    private final Map<Uri, Map<String, String>> mTables = new ConcurrentHashMap<>();
+    private final List<Registration> mObservers = new CopyOnWriteArrayList<>();
+    private final long mLatencyNanos;
+
+    private final AtomicLong mQueries = new AtomicLong();
+    private final AtomicLong mInserts = new AtomicLong();
+
+    public InMemoryContentResolver(long latencyNanos) {
+        mLatencyNanos = latencyNanos;
+    }
+
+    /**
+     * Fills the table without going through the latency or the observers.
+     */
+    public void put(Uri table, String name, String value) {
+        getTable(table).put(name, value);
+    }
+
+    public long getQueryCount() {
+        return mQueries.get();
+    }
+
+    public long getInsertCount() {
+        return mInserts.get();
+    }
+
+    @Override
+    public Cursor query(Uri uri, String[] projection, String selection, String[] selectionArgs,
+            String sortOrder) {
+        spin();
+        mQueries.incrementAndGet();
+        final Map<String, String> table = getTable(uri);
+        final List<String[]> rows = new ArrayList<>();
+        if (selection == null) {
+            for (Map.Entry<String, String> entry : table.entrySet()) {
+                rows.add(new String[] { entry.getKey(), entry.getValue() });
+            }
+        } else if (NAME_SELECTION.equals(selection)) {
+            final String value = table.get(selectionArgs[0]);
+            if (value != null) {
+                rows.add(new String[] { selectionArgs[0], value });
+            }
+        } else {
+            throw new IllegalArgumentException("Only name=? is supported, got " + selection);
+        }
+        return new RowCursor(projection, rows);
+    }
+
+    @Override
+    public Uri insert(Uri uri, ContentValues values) {
+        spin();
+        mInserts.incrementAndGet();
+        final String name = values.getAsString(NAME);
+        final String value = values.getAsString(VALUE);
+        if (value == null) {
+            getTable(uri).remove(name);
+        } else {
+            getTable(uri).put(name, value);
+        }
+
+        final Uri item = Uri.withAppendedPath(uri, name);
+        for (Registration registration : mObservers) {
+            if (registration.uri.equals(uri)) {
+                registration.observer.onChange(false, Collections.singletonList(item), 0,
+                        UserHandle.of(UserHandle.USER_SYSTEM));
+            }
+        }
+        return item;
+    }
+
+    @Override
+    public void registerContentObserver(Uri uri, boolean notifyForDescendants,
+            ContentObserver observer, int userHandle) {
+        mObservers.add(new Registration(uri, observer));
+    }
+
+    @Override
+    public void unregisterContentObserver(ContentObserver observer) {
+        mObservers.removeIf(registration -> registration.observer == observer);
+    }
+
+    private Map<String, String> getTable(Uri uri) {
+        return mTables.computeIfAbsent(uri, u -> new ConcurrentHashMap<>());
+    }
+
+    private void spin() {
+        if (mLatencyNanos <= 0) return;
+        final long deadline = System.nanoTime() + mLatencyNanos;
+        while (System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class Registration {
+        final Uri uri;
+        final ContentObserver observer;
+
+        Registration(Uri uri, ContentObserver observer) {
+            this.uri = uri;
+            this.observer = observer;
+        }
+    }
+
+    private static final class RowCursor implements Cursor {
+        private final String[] mColumns;
+        private final List<String[]> mRows;
+        private int mPosition = -1;
+
+        RowCursor(String[] projection, List<String[]> rows) {
+            mColumns = projection != null ? projection : new String[] { NAME, VALUE };
+            mRows = rows;
+        }
+
+        @Override
+        public int getCount() {
+            return mRows.size();
+        }
+
+        @Override
+        public boolean moveToNext() {
+            return ++mPosition < mRows.size();
+        }
+
+        @Override
+        public int getColumnIndexOrThrow(String columnName) {
+            for (int i = 0; i < mColumns.length; i++) {
+                if (mColumns[i].equals(columnName)) return i;
+            }
+            throw new IllegalArgumentException("column '" + columnName + "' does not exist");
+        }
+
+        @Override
+        public String getString(int columnIndex) {
+            // Rows are stored as name, value whatever the projection
+            return mRows.get(mPosition)[VALUE.equals(mColumns[columnIndex]) ? 1 : 0];
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.benchmarks;
+
+import com.crdroid.settings.utils.KeyboxXml;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of a picked keybox file, a full valid one and one that is
+ * refused on its first certificate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyboxXmlBenchmark {
+
+    private static final String PEM = "\n-----BEGIN CERTIFICATE-----\n"
+            + "MIIBkTCB+wIJAL7Ck3nOuQxyMA0GCSqGSIb3DQEBCwUAMA0xCzAJBgNVBAYTAlVT\n"
+            + "MB4XDTI1MDEwMTAwMDAwMFoXDTM1MDEwMTAwMDAwMFowDTELMAkGA1UEBhMCVVMw\n"
+            + "-----END CERTIFICATE-----\n";
+
+    private String mValid;
+    private String mInvalid;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mValid = keybox("pem");
+        mInvalid = keybox("der");
+        if (!KeyboxXml.isValid(mValid) || KeyboxXml.isValid(mInvalid)) {
+            throw new IllegalStateException("Unexpected keybox validation result");
+        }
+    }
+
+    private static String keybox(String certificateFormat) {
+        final StringBuilder xml = new StringBuilder("<?xml version=\"1.0\"?>\n")
+                .append("<AndroidAttestation>\n")
+                .append("<NumberOfKeyboxes>1</NumberOfKeyboxes>\n")
+                .append("<Keybox DeviceID=\"benchmark\">\n");
+        for (String algorithm : new String[] { "ecdsa", "rsa" }) {
+            xml.append("<Key algorithm=\"").append(algorithm).append("\">\n")
+                    .append("<PrivateKey format=\"pem\">").append(PEM).append("</PrivateKey>\n")
+                    .append("<CertificateChain>\n")
+                    .append("<NumberOfCertificates>3</NumberOfCertificates>\n");
+            for (int i = 0; i < 3; i++) {
+                xml.append("<Certificate format=\"").append(certificateFormat).append("\">")
+                        .append(PEM).append("</Certificate>\n");
+            }
+            xml.append("</CertificateChain>\n</Key>\n");
+        }
+        return xml.append("</Keybox>\n</AndroidAttestation>\n").toString();
+    }
+
+    @Benchmark
+    public boolean validKeybox() {
+        return KeyboxXml.isValid(mValid);
+    }
+
+    @Benchmark
+    public boolean invalidKeybox() {
+        return KeyboxXml.isValid(mInvalid);
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.benchmarks;
+
+import com.crdroid.settings.utils.PackageListUtils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The pipe separated package lists of SensorBlock and the notification
+ * light settings, and the label normalization of the app search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PackageListBenchmark {
+
+    @Param({ "10", "100" })
+    public int size;
+
+    private String mValue;
+    private List<String> mItems;
+    private String mLabel;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final StringBuilder value = new StringBuilder();
+        for (int i = 0; i < size; i++) {
+            if (i > 0) value.append(PackageListUtils.SEPARATOR);
+            // As stored by the notification light settings, name=color;on;off
+            value.append("com.example.app").append(i).append("=-16776961;1000;3000");
+        }
+        mValue = value.toString();
+        mItems = PackageListUtils.split(mValue);
+        mLabel = "Ĉàlèndãr Wïdgéts Ünïcödé";
+    }
+
+    @Benchmark
+    public List<String> split() {
+        return PackageListUtils.split(mValue);
+    }
+
+    @Benchmark
+    public String join() {
+        return PackageListUtils.join(mItems);
+    }
+
+    @Benchmark
+    public String normalizeForSearch() {
+        return PackageListUtils.normalizeForSearch(mLabel);
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.benchmarks;
+
+import android.content.ContentResolver;
+import android.os.UserHandle;
+
+import com.crdroid.settings.preferences.GlobalSettingsStore;
+import com.crdroid.settings.preferences.LineageSecureSettingsStore;
+import com.crdroid.settings.preferences.LineageSystemSettingsStore;
+import com.crdroid.settings.preferences.SecureSettingsStore;
+import com.crdroid.settings.preferences.SettingsCache;
+import com.crdroid.settings.preferences.SettingsObservers;
+import com.crdroid.settings.preferences.SettingsStore;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SystemSettingsStore;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads and writes through the provider backed preference stores.
+ *
+ * When the table is observed, as it is while a settings screen is shown,
+ * reads are answered by the SettingsCache. Otherwise each of them is a
+ * provider round trip.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SettingsStoreBenchmark {
+
+    private static final int KEY_COUNT = 64;
+    private static final int WRITE_BEHIND_BURST = 16;
+
+    @Param({ "SYSTEM", "SECURE", "GLOBAL", "LINEAGE_SYSTEM", "LINEAGE_SECURE" })
+    public SettingsTable table;
+
+    @Param({ "true", "false" })
+    public boolean observed;
+
+    // About a binder round trip to the settings provider
+    @Param({ "20000" })
+    public long ipcNanos;
+
+    private InMemoryContentResolver mResolver;
+    private TestLifecycleOwner mOwner;
+    private SettingsStore mStore;
+    private String[] mKeys;
+    private Set<String> mKeySet;
+    private int mNext;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        mResolver = new InMemoryContentResolver(ipcNanos);
+        mKeys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            mKeys[i] = "benchmark_key_" + i;
+            mResolver.put(table.getContentUri(), mKeys[i], Integer.toString(i));
+        }
+        mKeySet = new HashSet<>(Arrays.asList(mKeys));
+
+        mOwner = new TestLifecycleOwner();
+        if (observed) {
+            SettingsObservers.getInstance().retain(mOwner, mResolver, table);
+        }
+        mStore = createStore(table, mResolver);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        mStore.setWriteBehind(false);
+        mOwner.destroy();
+    }
+
+    private String nextKey() {
+        final String key = mKeys[mNext];
+        mNext = (mNext + 1) % KEY_COUNT;
+        return key;
+    }
+
+    @Benchmark
+    public int getInt() {
+        return mStore.getInt(nextKey(), -1);
+    }
+
+    @Benchmark
+    public String getUnsetString() {
+        return mStore.getString("benchmark_unset_key", null);
+    }
+
+    @Benchmark
+    public void putInt() {
+        mStore.putInt(nextKey(), mNext);
+    }
+
+    /**
+     * A slider being dragged, the burst is coalesced into a single write.
+     */
+    @Benchmark
+    @OperationsPerInvocation(WRITE_BEHIND_BURST)
+    public void putIntWriteBehind() {
+        mStore.setWriteBehind(true);
+        final String key = nextKey();
+        for (int i = 0; i < WRITE_BEHIND_BURST; i++) {
+            mStore.putInt(key, i);
+        }
+        mStore.flush();
+    }
+
+    /**
+     * Loading every key of a screen with one query, from a cold cache. When
+     * the table isn't observed there is nothing to keep the values, so the
+     * query is skipped.
+     */
+    @Benchmark
+    public void prefetch() {
+        final SettingsCache cache = SettingsCache.getInstance();
+        cache.invalidate(table, null);
+        cache.prefetch(mResolver, table, mKeySet, UserHandle.USER_CURRENT, "benchmark");
+    }
+
+    private static SettingsStore createStore(SettingsTable table, ContentResolver resolver) {
+        switch (table) {
+            case SYSTEM:
+                return new SystemSettingsStore(resolver);
+            case SECURE:
+                return new SecureSettingsStore(resolver);
+            case GLOBAL:
+                return new GlobalSettingsStore(resolver);
+            case LINEAGE_SYSTEM:
+                return new LineageSystemSettingsStore(resolver);
+            case LINEAGE_SECURE:
+                return new LineageSecureSettingsStore(resolver);
+            default:
+                throw new IllegalArgumentException("Unknown table " + table);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.benchmarks;
+
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.Lifecycle;
+import androidx.lifecycle.LifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Stands in for the settings activity the tables are observed for.
+ */
+final class TestLifecycleOwner implements LifecycleOwner {
+
+    private final List<LifecycleObserver> mObservers = new ArrayList<>();
+
+    private final Lifecycle mLifecycle = new Lifecycle() {
+        @Override
+        public void addObserver(LifecycleObserver observer) {
+            mObservers.add(observer);
+        }
+
+        @Override
+        public void removeObserver(LifecycleObserver observer) {
+            mObservers.remove(observer);
+        }
+    };
+
+    @Override
+    public Lifecycle getLifecycle() {
+        return mLifecycle;
+    }
+
+    void destroy() {
+        for (LifecycleObserver observer : new ArrayList<>(mObservers)) {
+            if (observer instanceof DefaultLifecycleObserver) {
+                ((DefaultLifecycleObserver) observer).onDestroy(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.content;
+
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+
+/**
+ * Only the calls the settings stores make, see InMemoryContentResolver of
+ * the benchmarks for the implementation.
+ */
+public abstract class ContentResolver {
+
+    public abstract Cursor query(Uri uri, String[] projection, String selection,
+            String[] selectionArgs, String sortOrder);
+
+    public abstract Uri insert(Uri uri, ContentValues values);
+
+    public abstract void registerContentObserver(Uri uri, boolean notifyForDescendants,
+            ContentObserver observer, int userHandle);
+
+    public abstract void unregisterContentObserver(ContentObserver observer);
+}
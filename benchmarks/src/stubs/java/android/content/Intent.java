@@ -0,0 +1,26 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.content;
+
+public class Intent {
+
+    public static final String ACTION_USER_SWITCHED = "android.intent.action.USER_SWITCHED";
+    public static final String EXTRA_USER_HANDLE = "android.intent.extra.user_handle";
+
+    public int getIntExtra(String name, int defaultValue) {
+        return defaultValue;
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.database;
+
+import android.net.Uri;
+import android.os.Handler;
+import android.os.UserHandle;
+
+import java.util.Collection;
+
+public abstract class ContentObserver {
+
+    public ContentObserver(Handler handler) {
+    }
+
+    public void onChange(boolean selfChange) {
+    }
+
+    public void onChange(boolean selfChange, Collection<Uri> uris, int flags, UserHandle user) {
+        onChange(selfChange);
+    }
+}
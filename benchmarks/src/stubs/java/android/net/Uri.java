@@ -0,0 +1,53 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.net;
+
+public final class Uri {
+
+    private final String mString;
+
+    private Uri(String string) {
+        mString = string;
+    }
+
+    public static Uri parse(String string) {
+        return new Uri(string);
+    }
+
+    public static Uri withAppendedPath(Uri base, String pathSegment) {
+        return new Uri(base.mString + "/" + pathSegment);
+    }
+
+    public String getLastPathSegment() {
+        final int slash = mString.lastIndexOf('/');
+        return slash < 0 ? mString : mString.substring(slash + 1);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Uri && mString.equals(((Uri) o).mString);
+    }
+
+    @Override
+    public int hashCode() {
+        return mString.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return mString;
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.os;
+
+public final class UserHandle {
+
+    public static final int USER_ALL = -1;
+    public static final int USER_CURRENT = -2;
+    public static final int USER_NULL = -10000;
+    public static final int USER_SYSTEM = 0;
+
+    private final int mHandle;
+
+    private UserHandle(int handle) {
+        mHandle = handle;
+    }
+
+    public static UserHandle of(int userId) {
+        return new UserHandle(userId);
+    }
+
+    public int getIdentifier() {
+        return mHandle;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.provider;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.UserHandle;
+
+import java.util.Set;
+
+public final class Settings {
+
+    public static final class System {
+
+        public static final Uri CONTENT_URI = Uri.parse("content://settings/system");
+
+        public static String getString(ContentResolver resolver, String name) {
+            return getStringForUser(resolver, name, UserHandle.USER_CURRENT);
+        }
+
+        public static String getStringForUser(ContentResolver resolver, String name,
+                int userHandle) {
+            return NameValueTable.getString(resolver, CONTENT_URI, name);
+        }
+
+        public static boolean putString(ContentResolver resolver, String name, String value) {
+            return putStringForUser(resolver, name, value, UserHandle.USER_CURRENT);
+        }
+
+        public static boolean putStringForUser(ContentResolver resolver, String name,
+                String value, int userHandle) {
+            return NameValueTable.putString(resolver, CONTENT_URI, name, value);
+        }
+
+        public static void getMovedToSecureSettings(Set<String> outKeySet) {
+        }
+
+        public static void getMovedToGlobalSettings(Set<String> outKeySet) {
+        }
+    }
+
+    public static final class Secure {
+
+        public static final Uri CONTENT_URI = Uri.parse("content://settings/secure");
+
+        public static String getString(ContentResolver resolver, String name) {
+            return getStringForUser(resolver, name, UserHandle.USER_CURRENT);
+        }
+
+        public static String getStringForUser(ContentResolver resolver, String name,
+                int userHandle) {
+            return NameValueTable.getString(resolver, CONTENT_URI, name);
+        }
+
+        public static boolean putString(ContentResolver resolver, String name, String value) {
+            return putStringForUser(resolver, name, value, UserHandle.USER_CURRENT);
+        }
+
+        public static boolean putStringForUser(ContentResolver resolver, String name,
+                String value, int userHandle) {
+            return NameValueTable.putString(resolver, CONTENT_URI, name, value);
+        }
+
+        public static void getMovedToGlobalSettings(Set<String> outKeySet) {
+        }
+    }
+
+    public static final class Global {
+
+        public static final Uri CONTENT_URI = Uri.parse("content://settings/global");
+
+        public static String getString(ContentResolver resolver, String name) {
+            return getStringForUser(resolver, name, UserHandle.USER_CURRENT);
+        }
+
+        public static String getStringForUser(ContentResolver resolver, String name,
+                int userHandle) {
+            return NameValueTable.getString(resolver, CONTENT_URI, name);
+        }
+
+        public static boolean putString(ContentResolver resolver, String name, String value) {
+            return putStringForUser(resolver, name, value, UserHandle.USER_CURRENT);
+        }
+
+        public static boolean putStringForUser(ContentResolver resolver, String name,
+                String value, int userHandle) {
+            return NameValueTable.putString(resolver, CONTENT_URI, name, value);
+        }
+    }
+
+    /*
+     * The platform goes through a per process value cache and provider
+     * calls, here every access is a provider round trip.
+     */
+    static final class NameValueTable {
+
+        static final String NAME = "name";
+        static final String VALUE = "value";
+
+        private static final String[] PROJECTION = new String[] { VALUE };
+
+        static String getString(ContentResolver resolver, Uri uri, String name) {
+            try (Cursor cursor = resolver.query(uri, PROJECTION, NAME + "=?",
+                    new String[] { name }, null)) {
+                return cursor != null && cursor.moveToNext() ? cursor.getString(0) : null;
+            }
+        }
+
+        static boolean putString(ContentResolver resolver, Uri uri, String name, String value) {
+            final ContentValues values = new ContentValues();
+            values.put(NAME, name);
+            values.put(VALUE, value);
+            return resolver.insert(uri, values) != null;
+        }
+    }
+}
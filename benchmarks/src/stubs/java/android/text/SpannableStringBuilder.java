@@ -0,0 +1,71 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package android.text;
+
+import java.util.Arrays;
+
+/**
+ * Keeps the spans in growing arrays like the platform class does, so the
+ * cost of attaching them is still accounted for.
+ */
+public class SpannableStringBuilder implements Spannable {
+
+    private final String mText;
+    private Object[] mSpans = new Object[16];
+    private int[] mSpanData = new int[16 * 3];
+    private int mSpanCount;
+
+    public SpannableStringBuilder(CharSequence text) {
+        mText = text.toString();
+    }
+
+    @Override
+    public void setSpan(Object what, int start, int end, int flags) {
+        if (mSpanCount == mSpans.length) {
+            mSpans = Arrays.copyOf(mSpans, mSpanCount * 2);
+            mSpanData = Arrays.copyOf(mSpanData, mSpanCount * 2 * 3);
+        }
+        mSpans[mSpanCount] = what;
+        mSpanData[mSpanCount * 3] = start;
+        mSpanData[mSpanCount * 3 + 1] = end;
+        mSpanData[mSpanCount * 3 + 2] = flags;
+        mSpanCount++;
+    }
+
+    public int getSpanCount() {
+        return mSpanCount;
+    }
+
+    @Override
+    public int length() {
+        return mText.length();
+    }
+
+    @Override
+    public char charAt(int index) {
+        return mText.charAt(index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return mText.subSequence(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return mText;
+    }
+}
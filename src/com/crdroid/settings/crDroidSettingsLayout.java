@@ -20,8 +20,11 @@ import android.app.Activity;
 import android.app.AlertDialog;
 import android.content.Context;
 import android.content.DialogInterface;
+import android.content.Intent;
+import android.net.Uri;
 import android.os.AsyncTask;
 import android.os.Bundle;
+import android.util.Log;
 import android.view.LayoutInflater;
 import android.view.MotionEvent;
 import android.view.Menu;
@@ -31,6 +34,7 @@ import android.view.View;
 import android.view.ViewGroup;
 import android.widget.FrameLayout;
 import android.widget.LinearLayout;
+import android.widget.Toast;
 
 import androidx.fragment.app.Fragment;
 import androidx.fragment.app.FragmentManager;
@@ -51,6 +55,16 @@ import com.crdroid.settings.fragments.QuickSettings;
 import com.crdroid.settings.fragments.Sound;
 import com.crdroid.settings.fragments.StatusBar;
 import com.crdroid.settings.fragments.UserInterface;
+import com.crdroid.settings.preferences.SettingsBatchWriter;
+import com.crdroid.settings.preferences.SettingsSnapshot;
+import com.crdroid.settings.preferences.SettingsStats;
+import com.crdroid.settings.preferences.SettingsValues;
+
+import java.io.FileDescriptor;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
 
 public class crDroidSettingsLayout extends SettingsPreferenceFragment {
 
@@ -62,6 +76,13 @@ public class crDroidSettingsLayout extends SettingsPreferenceFragment {
     protected Context mContext;
 
     private static final int MENU_RESET = Menu.FIRST;
+    private static final int MENU_EXPORT = Menu.FIRST + 1;
+    private static final int MENU_IMPORT = Menu.FIRST + 2;
+
+    private static final int REQUEST_EXPORT = 10001;
+    private static final int REQUEST_IMPORT = 10002;
+
+    private static final String SNAPSHOT_MIME_TYPE = "text/plain";
 
     @Override
     public void onCreate(Bundle savedInstanceState) {
@@ -102,6 +123,8 @@ public class crDroidSettingsLayout extends SettingsPreferenceFragment {
                 .setAlphabeticShortcut('r')
                 .setShowAsAction(MenuItem.SHOW_AS_ACTION_IF_ROOM |
                         MenuItem.SHOW_AS_ACTION_WITH_TEXT);
+        menu.add(0, MENU_EXPORT, 0, R.string.settings_export_title);
+        menu.add(0, MENU_IMPORT, 0, R.string.settings_import_title);
     }
 
     public void resetAll(Context context) {
@@ -121,7 +144,7 @@ public class crDroidSettingsLayout extends SettingsPreferenceFragment {
                 .show();
     }
 
-    private class ResetAllTask extends AsyncTask<Void, Void, Void> {
+    private class ResetAllTask extends AsyncTask<Void, Void, SettingsBatchWriter.Result> {
         private Context rContext;
 
         public ResetAllTask(Context context) {
@@ -130,33 +153,151 @@ public class crDroidSettingsLayout extends SettingsPreferenceFragment {
         }
 
         @Override
-        protected Void doInBackground(Void... params) {
-            Buttons.reset(rContext);
-            LockScreen.reset(rContext);
-            Miscellaneous.reset(rContext);
-            Navigation.reset(rContext);
-            Notifications.reset(rContext);
-            QuickSettings.reset(rContext);
-            Sound.reset(rContext);
-            StatusBar.reset(rContext);
-            UserInterface.reset(rContext);
+        protected SettingsBatchWriter.Result doInBackground(Void... params) {
+            SettingsBatchWriter.Result result = SettingsBatchWriter.apply(
+                    rContext.getContentResolver(), getDefaults(rContext));
+            Log.i(TAG, "Reset all: " + result);
+            Miscellaneous.resetSystemProperties();
+            return result;
+        }
+
+        @Override
+        protected void onPostExecute(SettingsBatchWriter.Result result) {
+            showResult(rContext, R.plurals.reset_settings_done, result);
+            finish();
+            startActivity(getIntent());
+        }
+    }
+
+    private static void showResult(Context context, int pluralsId,
+            SettingsBatchWriter.Result result) {
+        // Application context, the toast outlives the activity that is restarted
+        final Context app = context.getApplicationContext();
+        Toast.makeText(app, app.getResources().getQuantityString(pluralsId,
+                result.changed, result.changed, result.keys), Toast.LENGTH_SHORT).show();
+    }
+
+    private class ExportTask extends AsyncTask<Void, Void, Boolean> {
+        private Context eContext;
+        private Uri eUri;
+
+        public ExportTask(Context context, Uri uri) {
+            super();
+            eContext = context;
+            eUri = uri;
+        }
+
+        @Override
+        protected Boolean doInBackground(Void... params) {
+            SettingsSnapshot snapshot = SettingsSnapshot.capture(
+                    eContext.getContentResolver(), getDefaults(eContext));
+            try (OutputStream out = eContext.getContentResolver().openOutputStream(eUri, "wt")) {
+                snapshot.writeTo(out);
+                return true;
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Failed to export settings", e);
+                return false;
+            }
+        }
+
+        @Override
+        protected void onPostExecute(Boolean success) {
+            Toast.makeText(eContext, success ? R.string.settings_export_done
+                    : R.string.settings_export_failed, Toast.LENGTH_SHORT).show();
+        }
+    }
+
+    private class ImportTask extends AsyncTask<Void, Void, SettingsBatchWriter.Result> {
+        private Context iContext;
+        private Uri iUri;
+
+        public ImportTask(Context context, Uri uri) {
+            super();
+            iContext = context;
+            iUri = uri;
+        }
+
+        @Override
+        protected SettingsBatchWriter.Result doInBackground(Void... params) {
+            SettingsSnapshot snapshot;
+            try (InputStream in = iContext.getContentResolver().openInputStream(iUri)) {
+                snapshot = SettingsSnapshot.readFrom(in);
+            } catch (IOException | RuntimeException e) {
+                Log.e(TAG, "Failed to read settings from " + iUri, e);
+                return null;
+            }
+            SettingsBatchWriter.Result result = snapshot.apply(
+                    iContext.getContentResolver(), getDefaults(iContext));
+            Log.i(TAG, "Import: " + result);
+            return result;
+        }
+
+        @Override
+        protected void onPostExecute(SettingsBatchWriter.Result result) {
+            if (result == null) {
+                Toast.makeText(iContext, R.string.settings_import_failed,
+                        Toast.LENGTH_SHORT).show();
+                return;
+            }
+            showResult(iContext, R.plurals.settings_import_done, result);
             finish();
             startActivity(getIntent());
-            return null;
         }
     }
 
+    public static SettingsValues getDefaults(Context context) {
+        SettingsValues defaults = new SettingsValues();
+        Buttons.addDefaults(context, defaults);
+        LockScreen.addDefaults(context, defaults);
+        Miscellaneous.addDefaults(context, defaults);
+        Navigation.addDefaults(context, defaults);
+        Notifications.addDefaults(context, defaults);
+        QuickSettings.addDefaults(context, defaults);
+        Sound.addDefaults(context, defaults);
+        StatusBar.addDefaults(context, defaults);
+        UserInterface.addDefaults(context, defaults);
+        return defaults;
+    }
+
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         switch (item.getItemId()) {
             case MENU_RESET:
                  showResetAllDialog(getActivity());
                 return true;
+            case MENU_EXPORT:
+                Intent export = new Intent(Intent.ACTION_CREATE_DOCUMENT);
+                export.addCategory(Intent.CATEGORY_OPENABLE);
+                export.setType(SNAPSHOT_MIME_TYPE);
+                export.putExtra(Intent.EXTRA_TITLE, "crdroid-settings.txt");
+                startActivityForResult(export, REQUEST_EXPORT);
+                return true;
+            case MENU_IMPORT:
+                Intent open = new Intent(Intent.ACTION_OPEN_DOCUMENT);
+                open.addCategory(Intent.CATEGORY_OPENABLE);
+                open.setType(SNAPSHOT_MIME_TYPE);
+                startActivityForResult(open, REQUEST_IMPORT);
+                return true;
             default:
                 return false;
         }
     }
 
+    @Override
+    public void onActivityResult(int requestCode, int resultCode, Intent result) {
+        if (resultCode != Activity.RESULT_OK || result == null || result.getData() == null) {
+            return;
+        }
+        switch (requestCode) {
+            case REQUEST_EXPORT:
+                new ExportTask(getActivity(), result.getData()).execute();
+                break;
+            case REQUEST_IMPORT:
+                new ImportTask(getActivity(), result.getData()).execute();
+                break;
+        }
+    }
+
     class SectionsPagerAdapter extends FragmentPagerAdapter {
 
         String titles[] = getTitles();
@@ -207,6 +348,12 @@ public class crDroidSettingsLayout extends SettingsPreferenceFragment {
         return titleString;
     }
 
+    @Override
+    public void dump(String prefix, FileDescriptor fd, PrintWriter writer, String[] args) {
+        super.dump(prefix, fd, writer, args);
+        SettingsStats.getInstance().dump(writer);
+    }
+
     @Override
     public int getMetricsCategory() {
         return MetricsProto.MetricsEvent.CRDROID_SETTINGS;
@@ -43,6 +43,9 @@ import com.crdroid.settings.fragments.buttons.PowerMenuActions;
 import com.crdroid.settings.preferences.LineageSystemSettingSeekBarPreference;
 import com.crdroid.settings.utils.DeviceUtils;
 import com.crdroid.settings.utils.TelephonyUtils;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import static org.lineageos.internal.util.DeviceKeysConstants.*;
 
@@ -133,6 +136,7 @@ public class Buttons extends SettingsPreferenceFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
         mHardware = LineageHardwareManager.getInstance(getActivity());
 
@@ -563,22 +567,21 @@ public class Buttons extends SettingsPreferenceFragment implements
                         : LineageSettings.Secure.RING_HOME_BUTTON_BEHAVIOR_DO_NOTHING));
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        LineageSettings.System.putIntForUser(resolver,
-                LineageSettings.System.CLICK_PARTIAL_SCREENSHOT, 0, UserHandle.USER_CURRENT);
-        LineageSettings.System.putIntForUser(resolver,
-                LineageSettings.System.TORCH_LONG_PRESS_POWER_GESTURE, 0, UserHandle.USER_CURRENT);
-        LineageSettings.System.putIntForUser(resolver,
-                LineageSettings.System.TORCH_LONG_PRESS_POWER_TIMEOUT, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.HARDWARE_KEYS_DISABLE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.SWAP_CAPACITIVE_KEYS, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.ANBI_ENABLED, 0, UserHandle.USER_CURRENT);
-        ButtonBacklightBrightness.reset(mContext);
-        PowerMenuActions.reset(mContext);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+                LineageSettings.System.CLICK_PARTIAL_SCREENSHOT, 0);
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+                LineageSettings.System.TORCH_LONG_PRESS_POWER_GESTURE, 0);
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+                LineageSettings.System.TORCH_LONG_PRESS_POWER_TIMEOUT, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.HARDWARE_KEYS_DISABLE, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.SWAP_CAPACITIVE_KEYS, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.ANBI_ENABLED, 0);
+        ButtonBacklightBrightness.addDefaults(mContext, defaults);
+        PowerMenuActions.addDefaults(mContext, defaults);
     }
 
     @Override
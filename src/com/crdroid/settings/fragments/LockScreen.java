@@ -43,6 +43,10 @@ import com.crdroid.settings.fragments.lockscreen.UdfpsIconPicker;
 import com.crdroid.settings.utils.DeviceUtils;
 import com.crdroid.settings.utils.SystemUtils;
 import com.crdroid.settings.utils.TelephonyUtils;
+import com.crdroid.settings.preferences.SettingsPrefetcher;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import java.util.List;
 
@@ -77,7 +81,9 @@ public class LockScreen extends SettingsPreferenceFragment
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
+        SettingsPrefetcher.prefetch(getPreferenceManager(), R.xml.crdroid_settings_lockscreen);
         addPreferencesFromResource(R.xml.crdroid_settings_lockscreen);
         final Context context = getContext();
 
@@ -140,38 +146,37 @@ public class LockScreen extends SettingsPreferenceFragment
         return false;
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.LOCKSCREEN_SMARTSPACE_ENABLED, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LOCKSCREEN_BATTERY_INFO, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.DOUBLE_TAP_SLEEP_LOCKSCREEN, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.ENABLE_RIPPLE_EFFECT, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.FP_ERROR_VIBRATE, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.FP_SUCCESS_VIBRATE, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LOCKSCREEN_ENABLE_POWER_MENU, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LOCKSCREEN_WEATHER_ENABLED, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LOCKSCREEN_WEATHER_LOCATION, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LOCKSCREEN_WEATHER_TEXT, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LOCKSCREEN_WEATHER_WIND_INFO, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LOCKSCREEN_WEATHER_HUMIDITY_INFO, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LOCKSCREEN_SHOW_CARRIER, 1, UserHandle.USER_CURRENT);
-        PulseSettings.reset(mContext);
-        MediaArtSettings.reset(mContext);
-        UdfpsAnimation.reset(mContext);
-        UdfpsIconPicker.reset(mContext);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.LOCKSCREEN_SMARTSPACE_ENABLED, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LOCKSCREEN_BATTERY_INFO, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.DOUBLE_TAP_SLEEP_LOCKSCREEN, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.ENABLE_RIPPLE_EFFECT, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.FP_ERROR_VIBRATE, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.FP_SUCCESS_VIBRATE, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LOCKSCREEN_ENABLE_POWER_MENU, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LOCKSCREEN_WEATHER_ENABLED, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LOCKSCREEN_WEATHER_LOCATION, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LOCKSCREEN_WEATHER_TEXT, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LOCKSCREEN_WEATHER_WIND_INFO, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LOCKSCREEN_WEATHER_HUMIDITY_INFO, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LOCKSCREEN_SHOW_CARRIER, 1);
+        PulseSettings.addDefaults(mContext, defaults);
+        MediaArtSettings.addDefaults(mContext, defaults);
+        UdfpsAnimation.addDefaults(mContext, defaults);
+        UdfpsIconPicker.addDefaults(mContext, defaults);
     }
 
     private void updateWeatherSettings() {
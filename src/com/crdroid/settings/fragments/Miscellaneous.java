@@ -43,6 +43,9 @@ import com.android.settingslib.search.SearchIndexable;
 
 import com.crdroid.settings.fragments.misc.SensorBlock;
 import com.crdroid.settings.preferences.KeyboxDataPreference;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import java.util.List;
 
@@ -68,6 +71,7 @@ public class Miscellaneous extends SettingsPreferenceFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
         addPreferencesFromResource(R.xml.crdroid_settings_misc);
 
@@ -136,25 +140,27 @@ public class Miscellaneous extends SettingsPreferenceFragment implements
         }
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.ENABLE_ROTATION_BUTTON, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.POCKET_JUDGE, 0, UserHandle.USER_CURRENT);
-        LineageSettings.System.putIntForUser(resolver,
-                LineageSettings.System.AUTO_BRIGHTNESS_ONE_SHOT, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.PI_ENABLE_SPOOF, 1, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.PI_GMS_CERT_CHAIN, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.PI_GAMES_SPOOF, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.PI_PHOTOS_SPOOF, 1, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.PI_NETFLIX_SPOOF, 0, UserHandle.USER_CURRENT);
-        SensorBlock.reset(mContext);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.ENABLE_ROTATION_BUTTON, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.POCKET_JUDGE, 0);
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+                LineageSettings.System.AUTO_BRIGHTNESS_ONE_SHOT, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.PI_ENABLE_SPOOF, 1);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.PI_GMS_CERT_CHAIN, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.PI_GAMES_SPOOF, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.PI_PHOTOS_SPOOF, 1);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.PI_NETFLIX_SPOOF, 0);
+        SensorBlock.addDefaults(mContext, defaults);
+    }
+
+    public static void resetSystemProperties() {
         SystemProperties.set("persist.sys.vbmeta.update", "true");
     }
 
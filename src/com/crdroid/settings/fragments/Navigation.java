@@ -35,6 +35,10 @@ import com.android.settings.SettingsPreferenceFragment;
 import com.android.internal.logging.nano.MetricsProto;
 import com.android.internal.util.crdroid.Utils;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
+
 import lineageos.providers.LineageSettings;
 
 
@@ -45,26 +49,26 @@ public class Navigation extends SettingsPreferenceFragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        LineageSettings.System.putIntForUser(resolver,
-             LineageSettings.System.NAVIGATION_BAR_MENU_ARROW_KEYS, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.NAVBAR_INVERSE_LAYOUT, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.NAVBAR_LAYOUT_MODE, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.BACK_GESTURE_ARROW, 1, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.BACK_GESTURE_HAPTIC, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.BACK_GESTURE_HEIGHT, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.GESTURE_NAVBAR_LENGTH_MODE, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.GESTURE_NAVBAR_HEIGHT_MODE, 3, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+             LineageSettings.System.NAVIGATION_BAR_MENU_ARROW_KEYS, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.NAVBAR_INVERSE_LAYOUT, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.NAVBAR_LAYOUT_MODE, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.BACK_GESTURE_ARROW, 1);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.BACK_GESTURE_HAPTIC, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.BACK_GESTURE_HEIGHT, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.GESTURE_NAVBAR_LENGTH_MODE, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.GESTURE_NAVBAR_HEIGHT_MODE, 3);
     }
 
     @Override
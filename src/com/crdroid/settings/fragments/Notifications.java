@@ -40,6 +40,10 @@ import com.android.settingslib.search.SearchIndexable;
 import com.android.internal.util.crdroid.Utils;
 
 import com.crdroid.settings.preferences.CustomSeekBarPreference;
+import com.crdroid.settings.preferences.SettingsPrefetcher;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import java.util.List;
 
@@ -71,7 +75,9 @@ public class Notifications extends SettingsPreferenceFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
+        SettingsPrefetcher.prefetch(getPreferenceManager(), R.xml.crdroid_settings_notifications);
         addPreferencesFromResource(R.xml.crdroid_settings_notifications);
 
         final PreferenceScreen prefScreen = getPreferenceScreen();
@@ -152,32 +158,31 @@ public class Notifications extends SettingsPreferenceFragment implements
         return defaultHeadsUpTimeOut;
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.Global.putInt(resolver,
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.GLOBAL,
                 Settings.Global.HEADS_UP_NOTIFICATIONS_ENABLED, 1);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.NOTIFICATION_ROW_TRANSPARENCY, 1, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.NOTIFICATION_ROW_TRANSPARENCY_LOCKSCREEN, 1, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.MEDIA_SQUIGGLE_ANIMATION, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LESS_BORING_HEADS_UP, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.NOTIFICATION_SOUND_VIB_SCREEN_ON, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.FLASHLIGHT_ON_CALL, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.FLASHLIGHT_ON_CALL_IGNORE_DND, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.FLASHLIGHT_ON_CALL_RATE, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.ALERT_SLIDER_NOTIFICATIONS, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.NOTIFICATION_GUTS_KILL_APP_BUTTON, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.HEADS_UP_TIMEOUT, getDefaultDecay(mContext), UserHandle.USER_CURRENT);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.NOTIFICATION_ROW_TRANSPARENCY, 1);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.NOTIFICATION_ROW_TRANSPARENCY_LOCKSCREEN, 1);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.MEDIA_SQUIGGLE_ANIMATION, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LESS_BORING_HEADS_UP, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.NOTIFICATION_SOUND_VIB_SCREEN_ON, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.FLASHLIGHT_ON_CALL, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.FLASHLIGHT_ON_CALL_IGNORE_DND, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.FLASHLIGHT_ON_CALL_RATE, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.ALERT_SLIDER_NOTIFICATIONS, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.NOTIFICATION_GUTS_KILL_APP_BUTTON, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.HEADS_UP_TIMEOUT, getDefaultDecay(mContext));
     }
 
     @Override
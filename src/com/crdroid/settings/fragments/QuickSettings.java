@@ -39,6 +39,10 @@ import com.crdroid.settings.fragments.quicksettings.LayoutSettings;
 import com.crdroid.settings.fragments.quicksettings.QsHeaderImageSettings;
 import com.crdroid.settings.preferences.CustomSeekBarPreference;
 import com.crdroid.settings.utils.DeviceUtils;
+import com.crdroid.settings.preferences.SettingsPrefetcher;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import lineageos.providers.LineageSettings;
 
@@ -68,7 +72,9 @@ public class QuickSettings extends SettingsPreferenceFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
+        SettingsPrefetcher.prefetch(getPreferenceManager(), R.xml.crdroid_settings_quicksettings);
         addPreferencesFromResource(R.xml.crdroid_settings_quicksettings);
 
         final Context context = getContext();
@@ -123,34 +129,33 @@ public class QuickSettings extends SettingsPreferenceFragment implements
         return false;
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.ENABLE_LOCKSCREEN_QUICK_SETTINGS, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_BATTERY_STYLE, -1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_BRIGHTNESS_SLIDER_HAPTIC, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_BRIGHTNESS_SLIDER_SHAPE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_BT_SHOW_DIALOG, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_SHOW_BATTERY_PERCENT, 2, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_SHOW_DATA_USAGE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_TILE_HAPTIC, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_TILE_SHAPE, 0, UserHandle.USER_CURRENT);
-        LineageSettings.Secure.putIntForUser(resolver,
-                LineageSettings.Secure.QS_SHOW_BRIGHTNESS_SLIDER, 1, UserHandle.USER_CURRENT);
-        LineageSettings.Secure.putIntForUser(resolver,
-                LineageSettings.Secure.QS_BRIGHTNESS_SLIDER_POSITION, 0, UserHandle.USER_CURRENT);
-        LineageSettings.Secure.putIntForUser(resolver,
-                LineageSettings.Secure.QS_SHOW_AUTO_BRIGHTNESS, 1, UserHandle.USER_CURRENT);
-        LayoutSettings.reset(mContext);
-        QsHeaderImageSettings.reset(mContext);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.ENABLE_LOCKSCREEN_QUICK_SETTINGS, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_BATTERY_STYLE, -1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_BRIGHTNESS_SLIDER_HAPTIC, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_BRIGHTNESS_SLIDER_SHAPE, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_BT_SHOW_DIALOG, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_SHOW_BATTERY_PERCENT, 2);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_SHOW_DATA_USAGE, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_TILE_HAPTIC, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_TILE_SHAPE, 0);
+        defaults.putInt(SettingsTable.LINEAGE_SECURE,
+                LineageSettings.Secure.QS_SHOW_BRIGHTNESS_SLIDER, 1);
+        defaults.putInt(SettingsTable.LINEAGE_SECURE,
+                LineageSettings.Secure.QS_BRIGHTNESS_SLIDER_POSITION, 0);
+        defaults.putInt(SettingsTable.LINEAGE_SECURE,
+                LineageSettings.Secure.QS_SHOW_AUTO_BRIGHTNESS, 1);
+        LayoutSettings.addDefaults(mContext, defaults);
+        QsHeaderImageSettings.addDefaults(mContext, defaults);
     }
 
     @Override
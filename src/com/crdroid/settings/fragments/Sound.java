@@ -41,6 +41,9 @@ import com.android.settingslib.search.SearchIndexable;
 import com.crdroid.settings.fragments.sound.AdaptivePlayback;
 import com.crdroid.settings.utils.DeviceUtils;
 import com.crdroid.settings.utils.TelephonyUtils;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -66,6 +69,7 @@ public class Sound extends SettingsPreferenceFragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
         addPreferencesFromResource(R.xml.crdroid_settings_sound);
 
@@ -93,24 +97,22 @@ public class Sound extends SettingsPreferenceFragment {
         }
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        LineageSettings.Secure.putIntForUser(resolver,
-                LineageSettings.Secure.VOLUME_PANEL_ON_LEFT, isAudioPanelOnLeftSide(mContext) ? 1 : 0,
-                UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.VOLUME_DIALOG_DISMISS_TIMEOUT, 3000, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.VOLUME_DIALOG_HAPTIC_FEEDBACK, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.VIBRATE_ON_CONNECT, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.VIBRATE_ON_CALLWAITING, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.VIBRATE_ON_DISCONNECT, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.SCREENSHOT_SHUTTER_SOUND, 1, UserHandle.USER_CURRENT);
-        AdaptivePlayback.reset(mContext);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.LINEAGE_SECURE,
+                LineageSettings.Secure.VOLUME_PANEL_ON_LEFT, isAudioPanelOnLeftSide(mContext) ? 1 : 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.VOLUME_DIALOG_DISMISS_TIMEOUT, 3000);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.VOLUME_DIALOG_HAPTIC_FEEDBACK, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.VIBRATE_ON_CONNECT, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.VIBRATE_ON_CALLWAITING, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.VIBRATE_ON_DISCONNECT, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.SCREENSHOT_SHUTTER_SOUND, 1);
+        AdaptivePlayback.addDefaults(mContext, defaults);
     }
 
     private static boolean isAudioPanelOnLeftSide(Context context) {
@@ -44,6 +44,10 @@ import com.crdroid.settings.fragments.statusbar.Clock;
 import com.crdroid.settings.fragments.statusbar.NetworkTrafficSettings;
 import com.crdroid.settings.preferences.SystemSettingSeekBarPreference;
 import com.crdroid.settings.utils.DeviceUtils;
+import com.crdroid.settings.preferences.SettingsPrefetcher;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import lineageos.preference.LineageSystemSettingListPreference;
 import lineageos.providers.LineageSettings;
@@ -80,7 +84,9 @@ public class StatusBar extends SettingsPreferenceFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
+        SettingsPrefetcher.prefetch(getPreferenceManager(), R.xml.crdroid_settings_statusbar);
         addPreferencesFromResource(R.xml.crdroid_settings_statusbar);
 
         ContentResolver resolver = getActivity().getContentResolver();
@@ -160,55 +166,53 @@ public class StatusBar extends SettingsPreferenceFragment implements
         return false;
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-
-        LineageSettings.System.putIntForUser(resolver,
-                LineageSettings.System.DOUBLE_TAP_SLEEP_GESTURE, 1, UserHandle.USER_CURRENT);
-        LineageSettings.System.putIntForUser(resolver,
-                LineageSettings.System.STATUS_BAR_QUICK_QS_PULLDOWN, 0, UserHandle.USER_CURRENT);
-        LineageSettings.System.putIntForUser(resolver,
-                LineageSettings.System.STATUS_BAR_CLOCK, 2, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.ENABLE_CAMERA_PRIVACY_INDICATOR, 1, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.ENABLE_LOCATION_PRIVACY_INDICATOR, 1, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.ENABLE_PROJECTION_PRIVACY_INDICATOR, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.BLUETOOTH_SHOW_BATTERY, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_BATTERY_STYLE, BATTERY_STYLE_PORTRAIT, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_SHOW_BATTERY_PERCENT, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_BATTERY_TEXT_CHARGING, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_COLORED_ICONS, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_EXTRA_PADDING_START, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_EXTRA_PADDING_TOP, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_EXTRA_PADDING_END, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_NOTIF_COUNT, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_LOGO, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_LOGO_POSITION, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_LOGO_STYLE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_BRIGHTNESS_CONTROL, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.DATA_DISABLED_ICON, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.WIFI_STANDARD_ICON, 0, UserHandle.USER_CURRENT);
-
-        BatteryBar.reset(mContext);
-        Clock.reset(mContext);
-        NetworkTrafficSettings.reset(mContext);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+                LineageSettings.System.DOUBLE_TAP_SLEEP_GESTURE, 1);
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+                LineageSettings.System.STATUS_BAR_QUICK_QS_PULLDOWN, 0);
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+                LineageSettings.System.STATUS_BAR_CLOCK, 2);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.ENABLE_CAMERA_PRIVACY_INDICATOR, 1);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.ENABLE_LOCATION_PRIVACY_INDICATOR, 1);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.ENABLE_PROJECTION_PRIVACY_INDICATOR, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.BLUETOOTH_SHOW_BATTERY, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_BATTERY_STYLE, BATTERY_STYLE_PORTRAIT);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_SHOW_BATTERY_PERCENT, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_BATTERY_TEXT_CHARGING, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_COLORED_ICONS, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_EXTRA_PADDING_START, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_EXTRA_PADDING_TOP, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_EXTRA_PADDING_END, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_NOTIF_COUNT, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_LOGO, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_LOGO_POSITION, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_LOGO_STYLE, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_BRIGHTNESS_CONTROL, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.DATA_DISABLED_ICON, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.WIFI_STANDARD_ICON, 0);
+
+        BatteryBar.addDefaults(mContext, defaults);
+        Clock.addDefaults(mContext, defaults);
+        NetworkTrafficSettings.addDefaults(mContext, defaults);
     }
 
     private void updateQuickPulldownSummary(int value) {
@@ -41,6 +41,9 @@ import com.crdroid.settings.fragments.ui.EdgeLightSettings;
 import com.crdroid.settings.fragments.ui.SmartPixels;
 import com.crdroid.settings.fragments.ui.MonetSettings;
 import com.crdroid.settings.utils.TelephonyUtils;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import com.android.internal.util.crdroid.ThemeUtils;
 
@@ -63,6 +66,7 @@ public class UserInterface extends SettingsPreferenceFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
         addPreferencesFromResource(R.xml.crdroid_settings_ui);
 
@@ -94,21 +98,19 @@ public class UserInterface extends SettingsPreferenceFragment implements
         return false;
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.CHARGING_ANIMATION, 1, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.PULSE_ON_NEW_TRACKS, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.CHARGING_ANIMATION, 1);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.PULSE_ON_NEW_TRACKS, 0);
+        defaults.putInt(SettingsTable.SECURE,
                 Settings.Secure.DOZE_ALWAYS_ON_WALLPAPER_ENABLED, mContext.getResources().getBoolean(
-                com.android.internal.R.bool.config_dozeSupportsAodWallpaper) ? 1 : 0,
-                UserHandle.USER_CURRENT);
+                com.android.internal.R.bool.config_dozeSupportsAodWallpaper) ? 1 : 0);
 
-        DozeSettings.reset(mContext);
-        EdgeLightSettings.reset(mContext);
-        MonetSettings.reset(mContext);
-        SmartPixels.reset(mContext);
+        DozeSettings.addDefaults(mContext, defaults);
+        EdgeLightSettings.addDefaults(mContext, defaults);
+        MonetSettings.addDefaults(mContext, defaults);
+        SmartPixels.addDefaults(mContext, defaults);
     }
 
     @Override
@@ -19,12 +19,6 @@ import android.annotation.Nullable;
 import android.app.Fragment;
 import android.content.res.Resources;
 import android.os.Bundle;
-import android.graphics.Color;
-import android.graphics.Typeface;
-import android.text.Spannable;
-import android.text.SpannableStringBuilder;
-import android.text.style.ForegroundColorSpan;
-import android.text.style.StyleSpan;
 import android.util.Log;
 import android.util.TypedValue;
 import android.view.LayoutInflater;
@@ -34,12 +28,11 @@ import android.widget.TextView;
 
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
+import com.crdroid.settings.utils.ChangelogSpans;
 
 import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.util.regex.Pattern;
-import java.util.regex.Matcher;
 
 import com.android.internal.logging.nano.MetricsProto;
 
@@ -64,11 +57,6 @@ public class ChangelogFragment extends SettingsPreferenceFragment {
         InputStreamReader inputReader = null;
         StringBuilder data = new StringBuilder();
 
-        Pattern date = Pattern.compile("(={20}|\\d{4}-\\d{2}-\\d{2})");
-        Pattern commit = Pattern.compile("([a-f0-9]{7})");
-        Pattern committer = Pattern.compile("\\[(\\D.*?)]");
-        Pattern title = Pattern.compile("(\\R\\s+[\\*]\\s.*)");
-
         try {
             char tmp[] = new char[2048];
             int numRead;
@@ -87,33 +75,12 @@ public class ChangelogFragment extends SettingsPreferenceFragment {
             }
         }
 
-        SpannableStringBuilder sb = new SpannableStringBuilder(data);
         Resources.Theme theme = getContext().getTheme();
         TypedValue typedValue = new TypedValue();
         theme.resolveAttribute(android.R.attr.colorAccent, typedValue, true);
         final int color = getContext().getColor(typedValue.resourceId);
 
-        Matcher m = date.matcher(data);
-        while (m.find()){
-            sb.setSpan(new ForegroundColorSpan(color), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
-            sb.setSpan(new StyleSpan(Typeface.BOLD), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
-        }
-        m = commit.matcher(data);
-        while (m.find()){
-            sb.setSpan(new StyleSpan(Typeface.NORMAL), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
-        }
-        m = committer.matcher(data);
-        while (m.find()){
-            sb.setSpan(new ForegroundColorSpan(color), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
-            sb.setSpan(new StyleSpan(Typeface.NORMAL), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
-        }
-        m = title.matcher(data);
-        while (m.find()){
-            sb.setSpan(new ForegroundColorSpan(color), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
-            sb.setSpan(new StyleSpan(Typeface.BOLD), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
-        }
-
-        textView.setText(sb);
+        textView.setText(ChangelogSpans.format(data, color));
     }
 
     @Override
@@ -40,6 +40,8 @@ import com.android.settings.R;
 
 import com.crdroid.settings.preferences.CustomDialogPref;
 import com.crdroid.settings.utils.DeviceUtils;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
 
 import lineageos.providers.LineageSettings;
 
@@ -460,13 +462,12 @@ public class ButtonBacklightBrightness extends CustomDialogPref<AlertDialog> imp
         }
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
         float defaultBrightness = mContext.getResources().getFloat(
                 org.lineageos.platform.internal.R.dimen.config_buttonBrightnessSettingDefaultFloat);
 
-        LineageSettings.Secure.putFloatForUser(resolver,
-                LineageSettings.Secure.BUTTON_BRIGHTNESS, defaultBrightness, UserHandle.USER_CURRENT);
+        defaults.putFloat(SettingsTable.LINEAGE_SECURE,
+                LineageSettings.Secure.BUTTON_BRIGHTNESS, defaultBrightness);
     }
 
     private class ButtonBrightnessControl extends BrightnessControl {
@@ -43,6 +43,8 @@ import com.android.settingslib.applications.ServiceListing;
 import com.android.settings.R;
 
 import com.crdroid.settings.utils.TelephonyUtils;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
 
 import lineageos.app.LineageGlobalActions;
 import lineageos.providers.LineageSettings;
@@ -220,12 +222,11 @@ public class PowerMenuActions extends SettingsPreferenceFragment {
         }
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        LineageSettings.Secure.putIntForUser(resolver,
-                LineageSettings.Secure.ADVANCED_REBOOT, 1, UserHandle.USER_CURRENT);
-        LineageSettings.Secure.putIntForUser(resolver,
-                LineageSettings.Secure.ADVANCED_REBOOT_SECURED, 1, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.LINEAGE_SECURE,
+                LineageSettings.Secure.ADVANCED_REBOOT, 1);
+        defaults.putInt(SettingsTable.LINEAGE_SECURE,
+                LineageSettings.Secure.ADVANCED_REBOOT_SECURED, 1);
     }
 
     @Override
@@ -40,6 +40,7 @@ import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 import com.android.internal.util.crdroid.ThemeUtils;
 import com.crdroid.settings.utils.SystemUtils;
+import com.crdroid.settings.utils.SelectionAdapter;
 
 import java.lang.ref.WeakReference;
 import java.util.List;
@@ -91,7 +92,7 @@ public class LockClockFontsPicker extends SettingsPreferenceFragment {
         return MetricsEvent.CRDROID_SETTINGS;
     }
 
-    public static class Adapter extends RecyclerView.Adapter<Adapter.CustomViewHolder> {
+    public static class Adapter extends SelectionAdapter<Adapter.CustomViewHolder> {
         private final WeakReference<Context> contextRef;
         private final List<String> mPkgs;
         private final ThemeUtils mThemeUtils;
@@ -140,16 +141,22 @@ public class LockClockFontsPicker extends SettingsPreferenceFragment {
 
             holder.itemView.setActivated(pkg.equals(mSelectedPkg));
             holder.itemView.setOnClickListener(view -> {
-                updateActivatedStatus(mSelectedPkg, false);
-                updateActivatedStatus(pkg, true);
                 if (!pkg.equals(mSelectedPkg)) {
+                    String oldPkg = mSelectedPkg;
                     mSelectedPkg = pkg;
+                    updateActivatedStatus(oldPkg);
+                    updateActivatedStatus(mSelectedPkg);
                     mThemeUtils.setOverlayEnabled(mCategory, mSelectedPkg, "android");
                     SystemUtils.restartSystemUI(context);
                 }
             });
         }
 
+        @Override
+        protected boolean isSelected(int position) {
+            return mPkgs.get(position).equals(mSelectedPkg);
+        }
+
         @Override
         public int getItemCount() {
             return mPkgs.size();
@@ -166,13 +173,8 @@ public class LockClockFontsPicker extends SettingsPreferenceFragment {
             }
         }
 
-        private void updateActivatedStatus(String pkg, boolean isActivated) {
-            int index = mPkgs.indexOf(pkg);
-            if (index < 0) return;
-            RecyclerView.ViewHolder holder = mRecyclerView.findViewHolderForAdapterPosition(index);
-            if (holder != null && holder.itemView != null) {
-                holder.itemView.setActivated(isActivated);
-            }
+        private void updateActivatedStatus(String pkg) {
+            notifyActivatedChanged(mPkgs.indexOf(pkg));
         }
 
         private Typeface getTypeface(Context context, String pkg) {
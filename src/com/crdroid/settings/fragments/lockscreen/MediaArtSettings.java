@@ -31,6 +31,9 @@ import com.android.internal.logging.nano.MetricsProto;
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+
 public class MediaArtSettings extends SettingsPreferenceFragment {
 
     @Override
@@ -40,18 +43,17 @@ public class MediaArtSettings extends SettingsPreferenceFragment {
         addPreferencesFromResource(R.xml.media_art_settings);
     }
 
-    public static void reset(Context context) {
-        ContentResolver resolver = context.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LS_MEDIA_ART_ENABLED, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LS_MEDIA_ART_FILTER, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LS_MEDIA_ART_FADE_LEVEL, 40, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.LS_MEDIA_ART_BLUR_LEVEL, 200, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.AMBIENT_MEDIA_ART_ENABLED, 1, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context context, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LS_MEDIA_ART_ENABLED, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LS_MEDIA_ART_FILTER, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LS_MEDIA_ART_FADE_LEVEL, 40);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.LS_MEDIA_ART_BLUR_LEVEL, 200);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.AMBIENT_MEDIA_ART_ENABLED, 1);
     }
 
     @Override
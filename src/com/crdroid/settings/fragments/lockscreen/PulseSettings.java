@@ -31,6 +31,9 @@ import com.android.internal.logging.nano.MetricsProto;
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+
 public class PulseSettings extends SettingsPreferenceFragment {
 
     @Override
@@ -40,20 +43,19 @@ public class PulseSettings extends SettingsPreferenceFragment {
         addPreferencesFromResource(R.xml.pulse_settings);
     }
 
-    public static void reset(Context context) {
-        ContentResolver resolver = context.getContentResolver();
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.LOCKSCREEN_PULSE_ENABLED, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.AMBIENT_PULSE_ENABLED, 1, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.PULSE_BAR_COUNT, 32, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.PULSE_ROUNDED_BARS, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putStringForUser(resolver,
-                Settings.Secure.PULSE_COLOR, "lavalamp", UserHandle.USER_CURRENT);
-        Settings.Secure.putStringForUser(resolver,
-                Settings.Secure.PULSE_RENDERER, "solid", UserHandle.USER_CURRENT);
+    public static void addDefaults(Context context, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.LOCKSCREEN_PULSE_ENABLED, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.AMBIENT_PULSE_ENABLED, 1);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.PULSE_BAR_COUNT, 32);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.PULSE_ROUNDED_BARS, 0);
+        defaults.putString(SettingsTable.SECURE,
+                Settings.Secure.PULSE_COLOR, "lavalamp");
+        defaults.putString(SettingsTable.SECURE,
+                Settings.Secure.PULSE_RENDERER, "solid");
     }
 
     @Override
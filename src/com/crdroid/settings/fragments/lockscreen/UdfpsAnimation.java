@@ -48,6 +48,10 @@ import com.android.settings.R;
 import com.android.settings.SettingsActivity;
 import com.android.settings.SettingsPreferenceFragment;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.utils.SelectionAdapter;
+
 import java.util.Arrays;
 
 public class UdfpsAnimation extends SettingsPreferenceFragment {
@@ -103,10 +107,9 @@ public class UdfpsAnimation extends SettingsPreferenceFragment {
         return view;
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.UDFPS_ANIM_STYLE, 0, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.UDFPS_ANIM_STYLE, 0);
     }
 
     @Override
@@ -114,7 +117,7 @@ public class UdfpsAnimation extends SettingsPreferenceFragment {
         return MetricsEvent.CRDROID_SETTINGS;
     }
 
-    public class UdfpsAnimAdapter extends RecyclerView.Adapter<UdfpsAnimAdapter.UdfpsAnimViewHolder> {
+    public class UdfpsAnimAdapter extends SelectionAdapter<UdfpsAnimAdapter.UdfpsAnimViewHolder> {
         Context context;
         String mSelectedAnim;
         String mAppliedAnim;
@@ -153,8 +156,8 @@ public class UdfpsAnimation extends SettingsPreferenceFragment {
             holder.itemView.setOnClickListener(new View.OnClickListener() {
                 @Override
                 public void onClick(View v) {
-                    updateActivatedStatus(mSelectedAnim, false);
-                    updateActivatedStatus(animName, true);
+                    updateActivatedStatus(mSelectedAnim);
+                    updateActivatedStatus(animName);
                     mSelectedAnim = animName;
                     holder.image.setBackgroundDrawable(getDrawable(v.getContext(), mAnims[position]));
                     animation = (AnimationDrawable) holder.image.getBackground();
@@ -166,6 +169,11 @@ public class UdfpsAnimation extends SettingsPreferenceFragment {
             });
         }
 
+        @Override
+        protected boolean isSelected(int position) {
+            return mAnims[position] == mSelectedAnim;
+        }
+
         @Override
         public int getItemCount() {
             return mAnims.length;
@@ -181,15 +189,8 @@ public class UdfpsAnimation extends SettingsPreferenceFragment {
             }
         }
 
-        private void updateActivatedStatus(String anim, boolean isActivated) {
-            int index = Arrays.asList(mAnims).indexOf(anim);
-            if (index < 0) {
-                return;
-            }
-            RecyclerView.ViewHolder holder = mRecyclerView.findViewHolderForAdapterPosition(index);
-            if (holder != null && holder.itemView != null) {
-                holder.itemView.setActivated(isActivated);
-            }
+        private void updateActivatedStatus(String anim) {
+            notifyActivatedChanged(Arrays.asList(mAnims).indexOf(anim));
         }
     }
 
@@ -58,9 +58,12 @@ import com.android.settings.SettingsPreferenceFragment;
 import com.android.settings.search.BaseSearchIndexProvider;
 import com.android.settingslib.search.Indexable;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.utils.SelectionAdapter;
+
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.List;
 
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -110,10 +113,9 @@ public class UdfpsIconPicker extends SettingsPreferenceFragment {
         return view;
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.UDFPS_ICON, 0, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.UDFPS_ICON, 0);
     }
 
     @Override
@@ -126,7 +128,7 @@ public class UdfpsIconPicker extends SettingsPreferenceFragment {
         super.onResume();
     }
 
-    public class UdfpsIconAdapter extends RecyclerView.Adapter<UdfpsIconAdapter.UdfpsIconViewHolder> {
+    public class UdfpsIconAdapter extends SelectionAdapter<UdfpsIconAdapter.UdfpsIconViewHolder> {
         Context context;
         String mSelectedIcon;
         String mAppliedIcon;
@@ -166,8 +168,8 @@ public class UdfpsIconPicker extends SettingsPreferenceFragment {
             holder.itemView.setOnClickListener(new View.OnClickListener() {
                 @Override
                 public void onClick(View v) {
-                    updateActivatedStatus(mSelectedIcon, false);
-                    updateActivatedStatus(iconRes, true);
+                    updateActivatedStatus(mSelectedIcon);
+                    updateActivatedStatus(iconRes);
                     mSelectedIcon = iconRes;
                     Settings.System.putInt(getActivity().getContentResolver(),
                             Settings.System.UDFPS_ICON, position);
@@ -175,6 +177,11 @@ public class UdfpsIconPicker extends SettingsPreferenceFragment {
             });
         }
 
+        @Override
+        protected boolean isSelected(int position) {
+            return mIcons[position] == mSelectedIcon;
+        }
+
         @Override
         public int getItemCount() {
             return mIcons.length;
@@ -190,15 +197,8 @@ public class UdfpsIconPicker extends SettingsPreferenceFragment {
             }
         }
 
-        private void updateActivatedStatus(String icon, boolean isActivated) {
-            int index = Arrays.asList(mIcons).indexOf(icon);
-            if (index < 0) {
-                return;
-            }
-            RecyclerView.ViewHolder holder = mRecyclerView.findViewHolderForAdapterPosition(index);
-            if (holder != null && holder.itemView != null) {
-                holder.itemView.setActivated(isActivated);
-            }
+        private void updateActivatedStatus(String icon) {
+            notifyActivatedChanged(Arrays.asList(mIcons).indexOf(icon));
         }
     }
 
@@ -49,8 +49,11 @@ import com.android.settings.SettingsPreferenceFragment;
 
 import com.crdroid.settings.preferences.PackageListAdapter;
 import com.crdroid.settings.preferences.PackageListAdapter.PackageItem;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.utils.AppIconCache;
+import com.crdroid.settings.utils.PackageListUtils;
 
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -100,6 +103,12 @@ public class SensorBlock extends SettingsPreferenceFragment
         refreshCustomApplicationPrefs();
     }
 
+    @Override
+    public void onDestroy() {
+        mPackageAdapter.release();
+        super.onDestroy();
+    }
+
     @Override
     public int getMetricsCategory() {
         return MetricsProto.MetricsEvent.CRDROID_SETTINGS;
@@ -120,12 +129,16 @@ public class SensorBlock extends SettingsPreferenceFragment
     public Dialog onCreateDialog(int id) {
         AlertDialog.Builder builder = new AlertDialog.Builder(getActivity());
         final Dialog dialog;
-        final ListView list = new ListView(getActivity());
+        final View content = LayoutInflater.from(getActivity()).inflate(R.layout.app_chooser, null);
+        final ListView list = content.findViewById(R.id.app_chooser_list);
+        mPackageAdapter.ensureLoaded();
+        mPackageAdapter.bindSearch(content.findViewById(R.id.app_chooser_search));
         list.setAdapter(mPackageAdapter);
-        list.setDivider(null);
+        // Nothing left to show the apps in, stop loading them
+        setOnDismissListener(d -> mPackageAdapter.cancel());
 
         builder.setTitle(R.string.choose_app);
-        builder.setView(list);
+        builder.setView(content);
         dialog = builder.create();
 
         switch (id) {
@@ -143,11 +156,10 @@ public class SensorBlock extends SettingsPreferenceFragment
         return dialog;
     }
 
-    public static void reset(Context context) {
-        ContentResolver resolver = context.getContentResolver();
-        Settings.Global.putInt(resolver,
+    public static void addDefaults(Context context, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.GLOBAL,
                 Settings.Global.SENSOR_BLOCK, 0);
-        Settings.Global.putString(resolver,
+        defaults.putString(SettingsTable.GLOBAL,
                 Settings.Global.SENSOR_BLOCKED_APP, null);
     }
 
@@ -253,7 +265,7 @@ public class SensorBlock extends SettingsPreferenceFragment
 
         pref.setKey(pkg.name);
         pref.setTitle(info.applicationInfo.loadLabel(mPackageManager));
-        pref.setIcon(info.applicationInfo.loadIcon(mPackageManager));
+        pref.setIcon(AppIconCache.getInstance(getActivity()).getIcon(info.applicationInfo));
         pref.setPersistent(false);
         pref.setOnPreferenceClickListener(this);
         return pref;
@@ -288,11 +300,7 @@ public class SensorBlock extends SettingsPreferenceFragment
             return;
         }
 
-        final String[] array = TextUtils.split(baseString, "\\|");
-        for (String item : array) {
-            if (TextUtils.isEmpty(item)) {
-                continue;
-            }
+        for (String item : PackageListUtils.split(baseString)) {
             Package pkg = Package.fromString(item);
             map.put(pkg.name, pkg);
         }
@@ -301,11 +309,7 @@ public class SensorBlock extends SettingsPreferenceFragment
 
     private void savePackageList(Map<String,Package> map) {
         if (map != mBlockedPackages) return;
-        List<String> settings = new ArrayList<String>();
-        for (Package app : map.values()) {
-            settings.add(app.toString());
-        }
-        final String value = TextUtils.join("|", settings);
+        final String value = PackageListUtils.join(map.values());
         Settings.Global.putString(getContentResolver(),
                 Settings.Global.SENSOR_BLOCKED_APP, value);
     }
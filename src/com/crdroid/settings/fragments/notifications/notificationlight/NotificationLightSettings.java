@@ -20,6 +20,8 @@ import android.provider.Settings;
 import android.telephony.TelephonyManager;
 import android.text.TextUtils;
 import android.util.ArraySet;
+import android.view.LayoutInflater;
+import android.view.View;
 import android.widget.ListView;
 
 import androidx.appcompat.app.AlertDialog;
@@ -34,6 +36,8 @@ import com.android.settings.SettingsPreferenceFragment;
 import com.android.internal.logging.nano.MetricsProto;
 import com.crdroid.settings.preferences.PackageListAdapter;
 import com.crdroid.settings.preferences.PackageListAdapter.PackageItem;
+import com.crdroid.settings.utils.AppIconCache;
+import com.crdroid.settings.utils.PackageListUtils;
 
 import org.lineageos.internal.notification.LightsCapabilities;
 
@@ -206,6 +210,14 @@ public class NotificationLightSettings extends SettingsPreferenceFragment implem
         requireActivity().invalidateOptionsMenu();
     }
 
+    @Override
+    public void onDestroy() {
+        if (mPackageAdapter != null) {
+            mPackageAdapter.release();
+        }
+        super.onDestroy();
+    }
+
     private void refreshDefault() {
         ContentResolver resolver = requireActivity().getContentResolver();
         int color = LineageSettings.System.getIntForUser(resolver,
@@ -276,7 +288,7 @@ public class NotificationLightSettings extends SettingsPreferenceFragment implem
 
                     pref.setKey(pkg.name);
                     pref.setTitle(info.applicationInfo.loadLabel(mPackageManager));
-                    pref.setIcon(info.applicationInfo.loadIcon(mPackageManager));
+                    pref.setIcon(AppIconCache.getInstance(context).getIcon(info.applicationInfo));
                     pref.setPersistent(false);
                     pref.setOnPreferenceChangeListener(this);
                     pref.setOnLongClickListener(this);
@@ -351,11 +363,7 @@ public class NotificationLightSettings extends SettingsPreferenceFragment implem
         mPackages.clear();
 
         if (baseString != null) {
-            final String[] array = TextUtils.split(baseString, "\\|");
-            for (String item : array) {
-                if (TextUtils.isEmpty(item)) {
-                    continue;
-                }
+            for (String item : PackageListUtils.split(baseString)) {
                 Package pkg = Package.fromString(item);
                 if (pkg != null) {
                     mPackages.put(pkg.name, pkg);
@@ -369,11 +377,7 @@ public class NotificationLightSettings extends SettingsPreferenceFragment implem
     }
 
     private void savePackageList(boolean preferencesUpdated) {
-        List<String> settings = new ArrayList<>();
-        for (Package app : mPackages.values()) {
-            settings.add(app.toString());
-        }
-        final String value = TextUtils.join("|", settings);
+        final String value = PackageListUtils.join(mPackages.values());
         if (preferencesUpdated) {
             mPackageList = value;
         }
@@ -485,16 +489,17 @@ public class NotificationLightSettings extends SettingsPreferenceFragment implem
         final Dialog dialog;
         switch (id) {
             case DIALOG_APPS:
-                Resources res = getResources();
-                int paddingTop = res.getDimensionPixelOffset(R.dimen.package_list_padding_top);
-
-                final ListView list = new ListView(requireActivity());
+                final View content = LayoutInflater.from(requireActivity())
+                        .inflate(R.layout.app_chooser, null);
+                final ListView list = content.findViewById(R.id.app_chooser_list);
+                mPackageAdapter.ensureLoaded();
+                mPackageAdapter.bindSearch(content.findViewById(R.id.app_chooser_search));
                 list.setAdapter(mPackageAdapter);
-                list.setDivider(null);
-                list.setPadding(0, paddingTop, 0, 0);
+                // Nothing left to show the apps in, stop loading them
+                setOnDismissListener(d -> mPackageAdapter.cancel());
 
                 builder.setTitle(R.string.choose_app);
-                builder.setView(list);
+                builder.setView(content);
                 dialog = builder.create();
 
                 list.setOnItemClickListener((parent, view, position, id1) -> {
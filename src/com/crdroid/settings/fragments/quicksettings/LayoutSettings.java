@@ -27,6 +27,10 @@ import com.android.settings.SettingsPreferenceFragment;
 import com.android.settings.search.BaseSearchIndexProvider;
 import com.android.settingslib.search.SearchIndexable;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
+
 import java.util.List;
 
 @SearchIndexable
@@ -37,23 +41,23 @@ public class LayoutSettings extends SettingsPreferenceFragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
         addPreferencesFromResource(R.xml.qs_layout_settings);
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_TILES_COLUMNS, 4, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_TILES_COLUMNS_LANDSCAPE, 4, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_TILES_ROWS, 4, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QS_TILES_ROWS_LANDSCAPE, 2, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QQS_TILES_ROWS, 2, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.QQS_TILES_ROWS_LANDSCAPE, 1, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_TILES_COLUMNS, 4);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_TILES_COLUMNS_LANDSCAPE, 4);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_TILES_ROWS, 4);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QS_TILES_ROWS_LANDSCAPE, 2);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QQS_TILES_ROWS, 2);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.QQS_TILES_ROWS_LANDSCAPE, 1);
     }
 
     @Override
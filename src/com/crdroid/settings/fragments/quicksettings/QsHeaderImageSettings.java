@@ -39,6 +39,10 @@ import com.android.settings.search.BaseSearchIndexProvider;
 import com.android.settings.SettingsPreferenceFragment;
 import com.android.settingslib.search.SearchIndexable;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.utils.IntentQueryCache;
+
 import java.util.List;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -170,8 +174,9 @@ public class QsHeaderImageSettings extends SettingsPreferenceFragment implements
         Map<String, String> headerMap = new HashMap<>();
         Intent intent = new Intent();
         PackageManager packageManager = getContext().getPackageManager();
+        IntentQueryCache queryCache = IntentQueryCache.getInstance(getContext());
         intent.setAction("org.omnirom.DaylightHeaderPack");
-        for (ResolveInfo r : packageManager.queryIntentActivities(intent, 0)) {
+        for (ResolveInfo r : queryCache.queryIntentActivities(intent, 0)) {
             String packageName = r.activityInfo.packageName;
             String label = r.activityInfo.loadLabel(packageManager).toString();
             if (label == null) {
@@ -180,7 +185,7 @@ public class QsHeaderImageSettings extends SettingsPreferenceFragment implements
             headerMap.put(label, packageName);
         }
         intent.setAction("org.omnirom.DaylightHeaderPack1");
-        for (ResolveInfo r : packageManager.queryIntentActivities(intent, 0)) {
+        for (ResolveInfo r : queryCache.queryIntentActivities(intent, 0)) {
             String packageName = r.activityInfo.packageName;
             String label = r.activityInfo.loadLabel(packageManager).toString();
             if (r.activityInfo.name.endsWith(".theme")) {
@@ -199,14 +204,13 @@ public class QsHeaderImageSettings extends SettingsPreferenceFragment implements
         }
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CUSTOM_HEADER, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CUSTOM_HEADER_SHADOW, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CUSTOM_HEADER_HEIGHT, 142, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CUSTOM_HEADER, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CUSTOM_HEADER_SHADOW, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CUSTOM_HEADER_HEIGHT, 142);
     }
 
     @Override
@@ -25,6 +25,10 @@ import com.android.internal.logging.nano.MetricsProto;
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
+
 public class AdaptivePlayback extends SettingsPreferenceFragment {
 
     private static final String TAG = AdaptivePlayback.class.getSimpleName();
@@ -32,16 +36,16 @@ public class AdaptivePlayback extends SettingsPreferenceFragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
         addPreferencesFromResource(R.xml.adaptive_playback_settings);
     }
 
-    public static void reset(Context context) {
-        ContentResolver resolver = context.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.ADAPTIVE_PLAYBACK_ENABLED, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.ADAPTIVE_PLAYBACK_TIMEOUT, 30, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context context, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.ADAPTIVE_PLAYBACK_ENABLED, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.ADAPTIVE_PLAYBACK_TIMEOUT, 30);
     }
 
     @Override
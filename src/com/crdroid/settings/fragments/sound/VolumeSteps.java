@@ -30,6 +30,7 @@ import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 
 import com.crdroid.settings.preferences.CustomSeekBarPreference;
+import com.crdroid.settings.preferences.SettingsStats;
 
 public class VolumeSteps extends SettingsPreferenceFragment implements
         OnPreferenceChangeListener {
@@ -39,6 +40,7 @@ public class VolumeSteps extends SettingsPreferenceFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
         addPreferencesFromResource(R.xml.volume_steps_settings);
 
@@ -25,6 +25,9 @@ import com.android.internal.logging.nano.MetricsProto;
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+
 public class BatteryBar extends SettingsPreferenceFragment {
 
     @Override
@@ -33,28 +36,27 @@ public class BatteryBar extends SettingsPreferenceFragment {
         addPreferencesFromResource(R.xml.battery_bar);
     }
 
-    public static void reset(Context context) {
-        ContentResolver resolver = context.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR_COLOR, 0xff76c124, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR_THICKNESS, 2, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR_STYLE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR_ANIMATE, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR_CHARGING_COLOR, 0xffffc90f, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR_BATTERY_LOW_COLOR, 0xfff90028, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR_ENABLE_CHARGING_COLOR, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR_BLEND_COLOR, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_BATTERY_BAR_BLEND_COLOR_REVERSE, 0, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context context, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR_COLOR, 0xff76c124);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR_THICKNESS, 2);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR_STYLE, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR_ANIMATE, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR_CHARGING_COLOR, 0xffffc90f);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR_BATTERY_LOW_COLOR, 0xfff90028);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR_ENABLE_CHARGING_COLOR, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR_BLEND_COLOR, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_BATTERY_BAR_BLEND_COLOR_REVERSE, 0);
     }
 
     @Override
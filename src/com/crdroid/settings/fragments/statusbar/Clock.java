@@ -38,6 +38,9 @@ import com.android.settings.SettingsPreferenceFragment;
 
 import com.crdroid.settings.preferences.CustomSeekBarPreference;
 import com.crdroid.settings.preferences.SystemSettingListPreference;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import java.util.Date;
 
@@ -68,6 +71,7 @@ public class Clock extends SettingsPreferenceFragment
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
         addPreferencesFromResource(R.xml.status_bar_clock);
 
@@ -205,31 +209,29 @@ public class Clock extends SettingsPreferenceFragment
         mClockDateFormat.setEntries(parsedDateEntries);
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CLOCK_AUTO_HIDE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CLOCK_AUTO_HIDE_HDURATION, 60, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CLOCK_AUTO_HIDE_SDURATION, 5, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CLOCK_DATE_DISPLAY, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CLOCK_DATE_POSITION, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CLOCK_DATE_STYLE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putString(resolver,
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CLOCK_AUTO_HIDE, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CLOCK_AUTO_HIDE_HDURATION, 60);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CLOCK_AUTO_HIDE_SDURATION, 5);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CLOCK_DATE_DISPLAY, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CLOCK_DATE_POSITION, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CLOCK_DATE_STYLE, 0);
+        defaults.putString(SettingsTable.SYSTEM,
                 Settings.System.STATUS_BAR_CLOCK_DATE_FORMAT, "");
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUS_BAR_CLOCK_SECONDS, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.STATUSBAR_CLOCK_CHIP, 0, UserHandle.USER_CURRENT);
-        LineageSettings.System.putIntForUser(resolver,
-                LineageSettings.System.STATUS_BAR_AM_PM, 0, UserHandle.USER_CURRENT);
-        LineageSettings.System.putIntForUser(resolver,
-                LineageSettings.System.STATUS_BAR_CLOCK_AUTO_HIDE, 0, UserHandle.USER_CURRENT);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUS_BAR_CLOCK_SECONDS, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.STATUSBAR_CLOCK_CHIP, 0);
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+                LineageSettings.System.STATUS_BAR_AM_PM, 0);
+        defaults.putInt(SettingsTable.LINEAGE_SYSTEM,
+                LineageSettings.System.STATUS_BAR_CLOCK_AUTO_HIDE, 0);
     }
 
     @Override
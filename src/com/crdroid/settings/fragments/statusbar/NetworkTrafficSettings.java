@@ -26,6 +26,10 @@ import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 import com.android.internal.logging.nano.MetricsProto;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
+
 public class NetworkTrafficSettings extends SettingsPreferenceFragment {
 
     private static final String TAG = "NetworkTrafficSettings";
@@ -33,25 +37,25 @@ public class NetworkTrafficSettings extends SettingsPreferenceFragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
         addPreferencesFromResource(R.xml.network_traffic_settings);
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.NETWORK_TRAFFIC_ENABLED, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.NETWORK_TRAFFIC_MODE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.NETWORK_TRAFFIC_AUTOHIDE, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.NETWORK_TRAFFIC_AUTOHIDE_THRESHOLD, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.NETWORK_TRAFFIC_UNITS, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.NETWORK_TRAFFIC_REFRESH_INTERVAL, 2, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.NETWORK_TRAFFIC_HIDEARROW, 0, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.NETWORK_TRAFFIC_ENABLED, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.NETWORK_TRAFFIC_MODE, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.NETWORK_TRAFFIC_AUTOHIDE, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.NETWORK_TRAFFIC_AUTOHIDE_THRESHOLD, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.NETWORK_TRAFFIC_UNITS, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.NETWORK_TRAFFIC_REFRESH_INTERVAL, 2);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.NETWORK_TRAFFIC_HIDEARROW, 0);
     }
 
     @Override
@@ -19,11 +19,11 @@ package com.crdroid.settings.fragments.ui;
 import android.app.ActivityManager;
 import android.annotation.Nullable;
 import android.content.Context;
-import android.content.Intent;
 import android.content.pm.ApplicationInfo;
-import android.content.pm.PackageManager;
-import android.content.pm.ResolveInfo;
+import android.graphics.drawable.Drawable;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.text.TextUtils;
 import android.view.LayoutInflater;
 import android.view.View;
@@ -37,6 +37,7 @@ import android.widget.TextView;
 
 import androidx.annotation.NonNull;
 import androidx.preference.PreferenceFragmentCompat;
+import androidx.recyclerview.widget.DiffUtil;
 import androidx.recyclerview.widget.RecyclerView;
 import androidx.recyclerview.widget.LinearLayoutManager;
 
@@ -45,9 +46,18 @@ import com.google.android.material.materialswitch.MaterialSwitch;
 
 import com.android.settings.R;
 
+import com.crdroid.settings.utils.AppIconCache;
+import com.crdroid.settings.utils.AppLoadExecutor;
+import com.crdroid.settings.utils.IntentQueryCache;
+
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import com.android.internal.util.crdroid.cutout.CutoutFullscreenController;
 
@@ -59,11 +69,15 @@ public class DisplayCutoutForceFullscreenFragment extends PreferenceFragmentComp
     private ApplicationsState mApplicationsState;
     private ApplicationsState.Session mSession;
     private ActivityFilter mActivityFilter;
-    private PackageManager mPackageManager;
+    private AppIconCache mIconCache;
     private RecyclerView mAppsRecyclerView;
 
     private CutoutFullscreenController mCutoutForceFullscreenSettings;
 
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    // Bumped per rebuild and on destroy so stale indexes are dropped
+    private int mIndexGeneration;
+
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
@@ -72,10 +86,10 @@ public class DisplayCutoutForceFullscreenFragment extends PreferenceFragmentComp
         mApplicationsState = ApplicationsState.getInstance(getActivity().getApplication());
         mSession = mApplicationsState.newSession(this);
         mSession.onResume();
-        mPackageManager = context.getPackageManager();
+        mIconCache = AppIconCache.getInstance(context);
         mActivityManager = (ActivityManager) context.getSystemService(
                 Context.ACTIVITY_SERVICE);
-        mActivityFilter = new ActivityFilter(mPackageManager);
+        mActivityFilter = new ActivityFilter(IntentQueryCache.getInstance(context));
         mAllPackagesAdapter = new AllPackagesAdapter(context);
         mCutoutForceFullscreenSettings = new CutoutFullscreenController(context);
     }
@@ -117,11 +131,13 @@ public class DisplayCutoutForceFullscreenFragment extends PreferenceFragmentComp
         super.onDestroy();
         mSession.onPause();
         mSession.onDestroy();
+        mIndexGeneration++;
+        mHandler.removeCallbacksAndMessages(null);
     }
 
     @Override
     public void onPackageListChanged() {
-        mActivityFilter.updateLauncherInfoList();
+        mActivityFilter.invalidate();
         rebuild();
     }
 
@@ -129,7 +145,6 @@ public class DisplayCutoutForceFullscreenFragment extends PreferenceFragmentComp
     public void onRebuildComplete(ArrayList<ApplicationsState.AppEntry> entries) {
         if (entries != null) {
             handleAppEntries(entries);
-            mAllPackagesAdapter.notifyDataSetChanged();
         }
     }
 
@@ -154,35 +169,125 @@ public class DisplayCutoutForceFullscreenFragment extends PreferenceFragmentComp
     public void onRunningStateChanged(boolean running) {}
 
     private void handleAppEntries(List<ApplicationsState.AppEntry> entries) {
-        final ArrayList<String> sections = new ArrayList<String>();
-        final ArrayList<Integer> positions = new ArrayList<Integer>();
-        String lastSectionIndex = null;
-        int offset = 0;
-
-        for (int i = 0; i < entries.size(); i++) {
-            final ApplicationInfo info = entries.get(i).info;
-            final String label = (String) info.loadLabel(mPackageManager);
-            final String sectionIndex;
-
-            if (!info.enabled) {
-                sectionIndex = "--"; // XXX
-            } else if (TextUtils.isEmpty(label)) {
-                sectionIndex = "";
-            } else {
-                sectionIndex = label.substring(0, 1).toUpperCase();
-            }
+        // Index and diff off the main thread, only the latest rebuild gets published
+        final int generation = ++mIndexGeneration;
+        final Context context = requireContext().getApplicationContext();
+        final List<EntryState> oldStates = mAllPackagesAdapter.mStates;
+        AppLoadExecutor.submit(AppLoadExecutor.PRIORITY_LABEL, () -> {
+            final EntryIndex index = new EntryIndex(context, entries);
+            final DiffUtil.DiffResult diff =
+                    DiffUtil.calculateDiff(new EntryDiff(oldStates, index.mStates), false);
+            mHandler.post(() -> {
+                if (generation == mIndexGeneration) {
+                    mAllPackagesAdapter.setEntries(entries, index, diff);
+                }
+            });
+        });
+    }
 
-            if (lastSectionIndex == null ||
-                    !TextUtils.equals(sectionIndex, lastSectionIndex)) {
-                sections.add(sectionIndex);
-                positions.add(offset);
-                lastSectionIndex = sectionIndex;
-            }
+    /*
+     * What a row was bound from. ApplicationsState updates its entries in
+     * place, so the old list holds the same objects as the new one and only
+     * a copy can tell what changed.
+     */
+    private static class EntryState {
+        private final String mPackageName;
+        private final String mLabel;
+        private final boolean mEnabled;
+        private final long mVersionCode;
+
+        private EntryState(ApplicationsState.AppEntry entry) {
+            mPackageName = entry.info.packageName;
+            mLabel = entry.label;
+            mEnabled = entry.info.enabled;
+            mVersionCode = entry.info.longVersionCode;
+        }
+    }
 
-            offset++;
+    private static class EntryDiff extends DiffUtil.Callback {
+        private final List<EntryState> mOld;
+        private final List<EntryState> mNew;
+
+        private EntryDiff(List<EntryState> oldStates, List<EntryState> newStates) {
+            mOld = oldStates;
+            mNew = newStates;
         }
 
-        mAllPackagesAdapter.setEntries(entries, sections, positions);
+        @Override
+        public int getOldListSize() {
+            return mOld.size();
+        }
+
+        @Override
+        public int getNewListSize() {
+            return mNew.size();
+        }
+
+        @Override
+        public boolean areItemsTheSame(int oldPosition, int newPosition) {
+            return mOld.get(oldPosition).mPackageName.equals(
+                    mNew.get(newPosition).mPackageName);
+        }
+
+        @Override
+        public boolean areContentsTheSame(int oldPosition, int newPosition) {
+            final EntryState oldState = mOld.get(oldPosition);
+            final EntryState newState = mNew.get(newPosition);
+            return TextUtils.equals(oldState.mLabel, newState.mLabel)
+                    && oldState.mEnabled == newState.mEnabled
+                    && oldState.mVersionCode == newState.mVersionCode;
+        }
+    }
+
+    /* alphabet sections and positions of a rebuilt entry list */
+    private static class EntryIndex {
+        private final String[] mSections;
+        private final int[] mPositions;
+        private final Map<String, Integer> mPositionsByPackage = new HashMap<>();
+        private final List<EntryState> mStates;
+
+        private EntryIndex(Context context, List<ApplicationsState.AppEntry> entries) {
+            final ArrayList<String> sections = new ArrayList<String>();
+            final ArrayList<Integer> positions = new ArrayList<Integer>();
+            String lastSectionIndex = null;
+            int offset = 0;
+            mStates = new ArrayList<>(entries.size());
+
+            for (int i = 0; i < entries.size(); i++) {
+                final ApplicationsState.AppEntry entry = entries.get(i);
+                final ApplicationInfo info = entry.info;
+                if (entry.label == null) {
+                    entry.ensureLabel(context);
+                }
+                final String label = entry.label;
+                final String sectionIndex;
+                mStates.add(new EntryState(entry));
+
+                if (!info.enabled) {
+                    sectionIndex = "--"; // XXX
+                } else if (TextUtils.isEmpty(label)) {
+                    sectionIndex = "";
+                } else {
+                    sectionIndex = label.substring(0, 1).toUpperCase();
+                }
+
+                if (lastSectionIndex == null ||
+                        !TextUtils.equals(sectionIndex, lastSectionIndex)) {
+                    sections.add(sectionIndex);
+                    positions.add(offset);
+                    lastSectionIndex = sectionIndex;
+                }
+
+                mPositionsByPackage.put(info.packageName, offset);
+                offset++;
+            }
+
+            mSections = sections.toArray(new String[sections.size()]);
+            mPositions = new int[positions.size()];
+            for (int i = 0; i < positions.size(); i++) {
+                mPositions[i] = positions.get(i);
+            }
+        }
     }
 
     private void rebuild() {
@@ -193,12 +298,16 @@ public class DisplayCutoutForceFullscreenFragment extends PreferenceFragmentComp
             implements SectionIndexer {
 
         private List<ApplicationsState.AppEntry> mEntries = new ArrayList<>();
-        private String[] mSections;
-        private int[] mPositions;
+        // Snapshot of mEntries as bound, the next rebuild is diffed against it
+        private List<EntryState> mStates = new ArrayList<>();
+        private String[] mSections = new String[0];
+        private int[] mPositions = new int[0];
+        private Map<String, Integer> mPositionsByPackage = Collections.emptyMap();
+        private final Set<String> mIconsLoading = new HashSet<>();
 
         public AllPackagesAdapter(Context context) {
             if (mActivityFilter == null) {
-                mActivityFilter = new ActivityFilter(mPackageManager);
+                mActivityFilter = new ActivityFilter(IntentQueryCache.getInstance(context));
             }
         }
 
@@ -229,8 +338,11 @@ public class DisplayCutoutForceFullscreenFragment extends PreferenceFragmentComp
 
             holder.title.setText(entry.label);
             holder.title.setOnClickListener(v -> holder.state.performClick());
-            mApplicationsState.ensureIcon(entry);
-            holder.icon.setImageDrawable(entry.info.loadIcon(mPackageManager));
+            final Drawable icon = mIconCache.peekIcon(entry.info);
+            holder.icon.setImageDrawable(icon);
+            if (icon == null) {
+                loadIcon(entry.info);
+            }
             holder.state.setTag(entry);
             holder.state.setChecked(mCutoutForceFullscreenSettings.shouldForceCutoutFullscreen(entry.info.packageName));
             holder.state.setOnCheckedChangeListener((buttonView, isChecked) -> {
@@ -249,15 +361,29 @@ public class DisplayCutoutForceFullscreenFragment extends PreferenceFragmentComp
             });
         }
 
-        private void setEntries(List<ApplicationsState.AppEntry> entries,
-                List<String> sections, List<Integer> positions) {
+        private void setEntries(List<ApplicationsState.AppEntry> entries, EntryIndex index,
+                DiffUtil.DiffResult diff) {
             mEntries = entries;
-            mSections = sections.toArray(new String[sections.size()]);
-            mPositions = new int[positions.size()];
-            for (int i = 0; i < positions.size(); i++) {
-                mPositions[i] = positions.get(i);
-            }
-            notifyDataSetChanged();
+            mStates = index.mStates;
+            mSections = index.mSections;
+            mPositions = index.mPositions;
+            mPositionsByPackage = index.mPositionsByPackage;
+            diff.dispatchUpdatesTo(this);
+        }
+
+        /* scales the icon in the background and rebinds its row */
+        private void loadIcon(ApplicationInfo info) {
+            if (!mIconsLoading.add(info.packageName)) return;
+            AppLoadExecutor.submit(AppLoadExecutor.PRIORITY_VISIBLE, () -> {
+                mIconCache.getBitmap(info);
+                mHandler.post(() -> {
+                    mIconsLoading.remove(info.packageName);
+                    final Integer position = mPositionsByPackage.get(info.packageName);
+                    if (position != null) {
+                        notifyItemChanged(position);
+                    }
+                });
+            });
         }
 
         @Override
@@ -313,40 +439,33 @@ public class DisplayCutoutForceFullscreenFragment extends PreferenceFragmentComp
 
     private class ActivityFilter implements ApplicationsState.AppFilter {
 
-        private final PackageManager mPackageManager;
-        private final List<String> mLauncherResolveInfoList = new ArrayList<String>();
-
-        private ActivityFilter(PackageManager packageManager) {
-            this.mPackageManager = packageManager;
+        private final IntentQueryCache mQueryCache;
+        // Snapshot taken in init(), filterApp() runs on the same thread
+        private Set<String> mLauncherPackages = Collections.emptySet();
 
-            updateLauncherInfoList();
+        private ActivityFilter(IntentQueryCache queryCache) {
+            this.mQueryCache = queryCache;
         }
 
-        public void updateLauncherInfoList() {
-            Intent i = new Intent(Intent.ACTION_MAIN);
-            i.addCategory(Intent.CATEGORY_LAUNCHER);
-            List<ResolveInfo> resolveInfoList = mPackageManager.queryIntentActivities(i, 0);
-
-            synchronized (mLauncherResolveInfoList) {
-                mLauncherResolveInfoList.clear();
-                for (ResolveInfo ri : resolveInfoList) {
-                    mLauncherResolveInfoList.add(ri.activityInfo.packageName);
-                }
-            }
+        /**
+         * Drops the launcher packages, the next rebuild queries them again.
+         * The package manager may already know about a change before our
+         * cache saw its broadcast.
+         */
+        public void invalidate() {
+            mQueryCache.invalidate();
         }
 
         @Override
-        public void init() {}
+        public void init() {
+            // Called on the ApplicationsState background thread for each rebuild
+            mLauncherPackages = mQueryCache.getLauncherPackages();
+        }
 
         @Override
         public boolean filterApp(ApplicationsState.AppEntry entry) {
-            boolean show = !mAllPackagesAdapter.mEntries.contains(entry.info.packageName);
-            if (show) {
-                synchronized (mLauncherResolveInfoList) {
-                    show = mLauncherResolveInfoList.contains(entry.info.packageName) && !entry.info.isSystemApp();
-                }
-            }
-            return show;
+            return !entry.info.isSystemApp()
+                    && mLauncherPackages.contains(entry.info.packageName);
         }
     }
 }
@@ -43,8 +43,12 @@ import com.android.settings.SettingsPreferenceFragment;
 import com.android.settings.search.BaseSearchIndexProvider;
 import com.android.settingslib.search.SearchIndexable;
 
+import com.crdroid.settings.fragments.ui.doze.DozeStats;
 import com.crdroid.settings.fragments.ui.doze.Utils;
 import com.crdroid.settings.preferences.SecureSettingSeekBarPreference;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import java.util.List;
 import java.util.ArrayList;
@@ -67,6 +71,7 @@ public class DozeSettings extends SettingsPreferenceFragment implements
     private static final String KEY_DOZE_POCKET_GESTURE = "doze_pocket_gesture";
     private static final String KEY_RAISE_TO_WAKE_GESTURE = "raise_to_wake_gesture";
     private static final String KEY_DOZE_GESTURE_VIBRATE = "doze_gesture_vibrate";
+    private static final String KEY_DOZE_GESTURE_STATS = "doze_gesture_stats";
 
     private SwitchPreferenceCompat mDozeEnabledPreference;
     private SwitchPreferenceCompat mDozeAlwaysOnPreference;
@@ -76,6 +81,7 @@ public class DozeSettings extends SettingsPreferenceFragment implements
     private SwitchPreferenceCompat mPocketPreference;
     private SwitchPreferenceCompat mRaiseToWakePreference;
     private SecureSettingSeekBarPreference mDozeVibratePreference;
+    private Preference mGestureStatsPreference;
 
     private Preference mDozeAlwaysOnSchedulePreference;
 
@@ -84,6 +90,7 @@ public class DozeSettings extends SettingsPreferenceFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
         addPreferencesFromResource(R.xml.doze_settings);
 
         Context context = getContext();
@@ -109,10 +116,12 @@ public class DozeSettings extends SettingsPreferenceFragment implements
         mPocketPreference = (SwitchPreferenceCompat) findPreference(KEY_DOZE_POCKET_GESTURE);
         mRaiseToWakePreference = (SwitchPreferenceCompat) findPreference(KEY_RAISE_TO_WAKE_GESTURE);
         mDozeVibratePreference = (SecureSettingSeekBarPreference) findPreference(KEY_DOZE_GESTURE_VIBRATE);
+        mGestureStatsPreference = findPreference(KEY_DOZE_GESTURE_STATS);
 
         // Hide sensor related features if the device doesn't support them
         if (!Utils.getTiltSensor(context) && !Utils.getPickupSensor(context)
                 && !Utils.getProximitySensor(context)) {
+            mGestureStatsPreference = null;
             getPreferenceScreen().removePreference(dozeSensorCategory);
         } else {
             if (!Utils.getTiltSensor(context)) {
@@ -157,6 +166,16 @@ public class DozeSettings extends SettingsPreferenceFragment implements
         }
     }
 
+    @Override
+    public void onResume() {
+        super.onResume();
+        if (mGestureStatsPreference != null) {
+            mGestureStatsPreference.setSummary(getString(R.string.doze_gesture_stats_summary,
+                    DozeStats.getPulses(), DozeStats.getWakeUps(),
+                    DozeStats.getRateLimited(), DozeStats.getWakelockMs() / 1000f));
+        }
+    }
+
     @Override
     public boolean onPreferenceChange(Preference preference, Object newValue) {
         Context context = getContext();
@@ -245,34 +264,30 @@ public class DozeSettings extends SettingsPreferenceFragment implements
                 }).show();
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.Secure.putIntForUser(resolver,
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SECURE,
                 Settings.Secure.DOZE_ENABLED, mContext.getResources().getBoolean(
-                com.android.internal.R.bool.config_doze_enabled_by_default) ? 1 : 0,
-                UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
+                com.android.internal.R.bool.config_doze_enabled_by_default) ? 1 : 0);
+        defaults.putInt(SettingsTable.SECURE,
                 Settings.Secure.DOZE_ALWAYS_ON, mContext.getResources().getBoolean(
-                com.android.internal.R.bool.config_dozeAlwaysOnEnabled) ? 1 : 0,
-                UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.DOZE_ALWAYS_ON_AUTO_MODE, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.DOZE_TILT_GESTURE, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
+                com.android.internal.R.bool.config_dozeAlwaysOnEnabled) ? 1 : 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.DOZE_ALWAYS_ON_AUTO_MODE, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.DOZE_TILT_GESTURE, 0);
+        defaults.putInt(SettingsTable.SECURE,
                 Settings.Secure.DOZE_PICK_UP_GESTURE, mContext.getResources().getBoolean(
-                com.android.internal.R.bool.config_dozePickupGestureEnabled) ? 1 : 0,
-                UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.DOZE_HANDWAVE_GESTURE, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.DOZE_POCKET_GESTURE, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.RAISE_TO_WAKE_GESTURE, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.DOZE_GESTURE_VIBRATE, 0, UserHandle.USER_CURRENT);
-        Settings.Secure.putIntForUser(resolver,
-                Settings.Secure.DOZE_ON_CHARGE, 0, UserHandle.USER_CURRENT);
+                com.android.internal.R.bool.config_dozePickupGestureEnabled) ? 1 : 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.DOZE_HANDWAVE_GESTURE, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.DOZE_POCKET_GESTURE, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.RAISE_TO_WAKE_GESTURE, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.DOZE_GESTURE_VIBRATE, 0);
+        defaults.putInt(SettingsTable.SECURE,
+                Settings.Secure.DOZE_ON_CHARGE, 0);
     }
 
     @Override
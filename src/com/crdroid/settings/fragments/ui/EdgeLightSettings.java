@@ -27,6 +27,9 @@ import com.android.internal.logging.nano.MetricsProto;
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+
 public class EdgeLightSettings extends SettingsPreferenceFragment {
 
     @Override
@@ -35,22 +38,21 @@ public class EdgeLightSettings extends SettingsPreferenceFragment {
         addPreferencesFromResource(R.xml.edge_light_settings);
     }
 
-    public static void reset(Context context) {
-        ContentResolver resolver = context.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.EDGE_LIGHT_ENABLED, 0, UserHandle.USER_CURRENT);
-        Settings.System.putStringForUser(resolver,
-                Settings.System.EDGE_LIGHT_COLOR_MODE, "accent", UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.EDGE_LIGHT_CUSTOM_COLOR, Color.WHITE, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.EDGE_LIGHT_PULSE_COUNT, 1, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.EDGE_LIGHT_STROKE_WIDTH, 8, UserHandle.USER_CURRENT);
-        Settings.System.putStringForUser(resolver,
-                Settings.System.EDGE_LIGHT_STYLE, "default", UserHandle.USER_CURRENT);
-        Settings.System.putStringForUser(resolver,
-                Settings.System.EDGE_LIGHT_ANIMATION_EFFECT, "none", UserHandle.USER_CURRENT);
+    public static void addDefaults(Context context, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.EDGE_LIGHT_ENABLED, 0);
+        defaults.putString(SettingsTable.SYSTEM,
+                Settings.System.EDGE_LIGHT_COLOR_MODE, "accent");
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.EDGE_LIGHT_CUSTOM_COLOR, Color.WHITE);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.EDGE_LIGHT_PULSE_COUNT, 1);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.EDGE_LIGHT_STROKE_WIDTH, 8);
+        defaults.putString(SettingsTable.SYSTEM,
+                Settings.System.EDGE_LIGHT_STYLE, "default");
+        defaults.putString(SettingsTable.SYSTEM,
+                Settings.System.EDGE_LIGHT_ANIMATION_EFFECT, "none");
     }
 
     @Override
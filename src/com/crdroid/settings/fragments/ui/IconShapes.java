@@ -42,6 +42,7 @@ import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 import com.android.settingslib.Utils;
 import com.android.internal.util.crdroid.ThemeUtils;
+import com.crdroid.settings.utils.SelectionAdapter;
 
 import java.lang.ref.WeakReference;
 import java.util.List;
@@ -88,7 +89,7 @@ public class IconShapes extends SettingsPreferenceFragment {
         return MetricsEvent.CRDROID_SETTINGS;
     }
 
-    public static class Adapter extends RecyclerView.Adapter<Adapter.CustomViewHolder> {
+    public static class Adapter extends SelectionAdapter<Adapter.CustomViewHolder> {
         private final WeakReference<Context> contextRef;
         private final List<String> mPkgs;
         private final ThemeUtils mThemeUtils;
@@ -144,20 +145,27 @@ public class IconShapes extends SettingsPreferenceFragment {
             holder.itemView.setActivated(pkg.equals(mSelectedPkg));
             holder.itemView.setOnClickListener(view -> {
                 if (!pkg.equals(mSelectedPkg)) {
+                    String oldPkg = mSelectedPkg;
                     mSelectedPkg = pkg;
                     mThemeUtils.setOverlayEnabled(mCategory, pkg, "android");
+                    updateActivatedStatus(oldPkg);
+                    updateActivatedStatus(mSelectedPkg);
                 }
-                updateActivatedStatus();
             });
         }
 
+        @Override
+        protected boolean isSelected(int position) {
+            return mPkgs.get(position).equals(mSelectedPkg);
+        }
+
         @Override
         public int getItemCount() {
             return mPkgs.size();
         }
 
-        private void updateActivatedStatus() {
-            notifyDataSetChanged();
+        private void updateActivatedStatus(String pkg) {
+            notifyActivatedChanged(mPkgs.indexOf(pkg));
         }
 
         public static class CustomViewHolder extends RecyclerView.ViewHolder {
@@ -37,6 +37,8 @@ import com.android.settingslib.search.SearchIndexable;
 
 import com.crdroid.settings.preferences.colorpicker.ColorPickerPreference;
 import com.crdroid.settings.preferences.CustomSeekBarPreference;
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
 
 import java.lang.CharSequence;
 
@@ -135,10 +137,9 @@ public class MonetSettings extends DashboardFragment implements
         mTintBackgroundPref.setOnPreferenceChangeListener(this);
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        LineageSettings.Secure.putIntForUser(resolver,
-                LineageSettings.Secure.BERRY_BLACK_THEME, 0, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.LINEAGE_SECURE,
+                LineageSettings.Secure.BERRY_BLACK_THEME, 0);
     }
 
     @Override
@@ -37,6 +37,7 @@ import com.android.internal.logging.nano.MetricsProto.MetricsEvent;
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 import com.android.internal.util.crdroid.ThemeUtils;
+import com.crdroid.settings.utils.SelectionAdapter;
 
 import java.lang.ref.WeakReference;
 import java.util.List;
@@ -83,7 +84,7 @@ public class SignalIcons extends SettingsPreferenceFragment {
         return MetricsEvent.CRDROID_SETTINGS;
     }
 
-    public static class Adapter extends RecyclerView.Adapter<Adapter.CustomViewHolder> {
+    public static class Adapter extends SelectionAdapter<Adapter.CustomViewHolder> {
         private final WeakReference<Context> contextRef;
         private final List<String> mPkgs;
         private final ThemeUtils mThemeUtils;
@@ -140,16 +141,18 @@ public class SignalIcons extends SettingsPreferenceFragment {
             });
         }
 
+        @Override
+        protected boolean isSelected(int position) {
+            return mPkgs.get(position).equals(mSelectedPkg);
+        }
+
         @Override
         public int getItemCount() {
             return mPkgs.size();
         }
 
         private void updateActivatedStatus(String pkg) {
-            int index = mPkgs.indexOf(pkg);
-            if (index >= 0) {
-                notifyItemChanged(index);
-            }
+            notifyActivatedChanged(mPkgs.indexOf(pkg));
         }
 
         public static class CustomViewHolder extends RecyclerView.ViewHolder {
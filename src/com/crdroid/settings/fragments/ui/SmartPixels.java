@@ -35,6 +35,10 @@ import com.android.internal.logging.nano.MetricsProto;
 import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 
+import com.crdroid.settings.preferences.SettingsValues;
+import com.crdroid.settings.preferences.SettingsTable;
+import com.crdroid.settings.preferences.SettingsStats;
+
 public class SmartPixels extends SettingsPreferenceFragment {
 
     private static final String TAG = "SmartPixels";
@@ -44,22 +48,22 @@ public class SmartPixels extends SettingsPreferenceFragment {
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
         addPreferencesFromResource(R.xml.smart_pixels);
 
         findPreference(SMART_PIXELS_FOOTER).setTitle(R.string.smart_pixels_warning_text);
     }
 
-    public static void reset(Context mContext) {
-        ContentResolver resolver = mContext.getContentResolver();
-        Settings.System.putIntForUser(resolver,
-                Settings.System.SMART_PIXELS_ENABLE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.SMART_PIXELS_ON_POWER_SAVE, 0, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.SMART_PIXELS_PATTERN, 5, UserHandle.USER_CURRENT);
-        Settings.System.putIntForUser(resolver,
-                Settings.System.SMART_PIXELS_SHIFT_TIMEOUT, 4, UserHandle.USER_CURRENT);
+    public static void addDefaults(Context mContext, SettingsValues defaults) {
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.SMART_PIXELS_ENABLE, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.SMART_PIXELS_ON_POWER_SAVE, 0);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.SMART_PIXELS_PATTERN, 5);
+        defaults.putInt(SettingsTable.SYSTEM,
+                Settings.System.SMART_PIXELS_SHIFT_TIMEOUT, 4);
     }
 
     @Override
@@ -33,6 +33,7 @@ import com.android.settings.R;
 import com.android.settings.SettingsPreferenceFragment;
 
 import com.crdroid.settings.preferences.SecureSettingListPreference;
+import com.crdroid.settings.preferences.SettingsStats;
 
 import java.time.format.DateTimeFormatter;
 import java.time.LocalTime;
@@ -58,6 +59,7 @@ public class AODSchedule extends SettingsPreferenceFragment implements
     @Override
     public void onCreate(Bundle savedInstanceState) {
         super.onCreate(savedInstanceState);
+        SettingsStats.setScope(getPreferenceManager(), TAG);
 
         addPreferencesFromResource(R.xml.always_on_display_schedule);
 
@@ -21,13 +21,23 @@ import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
+import android.database.ContentObserver;
+import android.net.Uri;
+import android.os.Handler;
 import android.os.IBinder;
+import android.os.Looper;
+import android.os.UserHandle;
 import android.util.Log;
 
+import java.io.FileDescriptor;
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicReference;
+
 public class DozeService extends Service {
     private static final String TAG = "crDroidDozeService";
     private static final boolean DEBUG = false;
 
+    private SensorHub mSensorHub;
     private TiltSensor mTiltSensor;
     private PickupSensor mPickupSensor;
     private ProximitySensor mProximitySensor;
@@ -36,6 +46,25 @@ public class DozeService extends Service {
     private boolean mPickupSensorAvailable;
     private boolean mProximitySensorAvailable;
 
+    // Read by the sensor callbacks, replaced as a whole on changes
+    private final AtomicReference<DozeSettingsSnapshot> mSettings = new AtomicReference<>();
+
+    private final ContentObserver mSettingsObserver =
+            new ContentObserver(new Handler(Looper.getMainLooper())) {
+        @Override
+        public void onChange(boolean selfChange, Uri uri) {
+            mSettings.set(DozeSettingsSnapshot.read(DozeService.this));
+        }
+    };
+
+    // The observer only fires on changes, a new user's values have to be read
+    private final BroadcastReceiver mUserSwitchReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            mSettings.set(DozeSettingsSnapshot.read(DozeService.this));
+        }
+    };
+
     private BroadcastReceiver mScreenStateReceiver = new BroadcastReceiver() {
         @Override
         public void onReceive(Context context, Intent intent) {
@@ -57,9 +86,23 @@ public class DozeService extends Service {
 
         if (!mTiltSensorAvailable && !mPickupSensorAvailable && !mProximitySensorAvailable) return;
 
-        if (mTiltSensorAvailable) mTiltSensor = new TiltSensor(this);
-        if (mPickupSensorAvailable) mPickupSensor = new PickupSensor(this);
-        if (mProximitySensorAvailable) mProximitySensor = new ProximitySensor(this);
+        mSettings.set(DozeSettingsSnapshot.read(this));
+        for (Uri uri : DozeSettingsSnapshot.URIS) {
+            getContentResolver().registerContentObserver(uri, false, mSettingsObserver,
+                    UserHandle.USER_ALL);
+        }
+        registerReceiver(mUserSwitchReceiver, new IntentFilter(Intent.ACTION_USER_SWITCHED));
+
+        mSensorHub = new SensorHub(this);
+        if (mTiltSensorAvailable) {
+            mTiltSensor = new TiltSensor(this, mSensorHub, mSettings::get);
+        }
+        if (mPickupSensorAvailable) {
+            mPickupSensor = new PickupSensor(this, mSensorHub, mSettings::get);
+        }
+        if (mProximitySensorAvailable) {
+            mProximitySensor = new ProximitySensor(this, mSensorHub, mSettings::get);
+        }
 
         IntentFilter screenStateFilter = new IntentFilter(Intent.ACTION_SCREEN_ON);
         screenStateFilter.addAction(Intent.ACTION_SCREEN_OFF);
@@ -80,6 +123,8 @@ public class DozeService extends Service {
         if (!mTiltSensorAvailable && !mPickupSensorAvailable && !mProximitySensorAvailable) return;
 
         this.unregisterReceiver(mScreenStateReceiver);
+        getContentResolver().unregisterContentObserver(mSettingsObserver);
+        this.unregisterReceiver(mUserSwitchReceiver);
         if (mTiltSensorAvailable) {
             mTiltSensor.disable();
         }
@@ -89,6 +134,7 @@ public class DozeService extends Service {
         if (mProximitySensorAvailable) {
             mProximitySensor.disable();
         }
+        mSensorHub.quit();
     }
 
     @Override
@@ -96,30 +142,37 @@ public class DozeService extends Service {
         return null;
     }
 
+    @Override
+    protected void dump(FileDescriptor fd, PrintWriter pw, String[] args) {
+        pw.println("Sensors: tilt=" + mTiltSensorAvailable + " pickup=" + mPickupSensorAvailable
+                + " proximity=" + mProximitySensorAvailable);
+        DozeStats.dump(pw);
+    }
+
     private void onDisplayOn() {
         if (DEBUG) Log.d(TAG, "Display on");
-        if (mTiltSensorAvailable && Utils.tiltEnabled(this)) {
+        final DozeSettingsSnapshot settings = mSettings.get();
+        if (mTiltSensorAvailable && settings.tilt) {
             mTiltSensor.disable();
         }
-        if (mPickupSensorAvailable && Utils.pickUpEnabled(this)) {
+        if (mPickupSensorAvailable && settings.pickUp) {
             mPickupSensor.disable();
         }
-        if (mProximitySensorAvailable && (Utils.handwaveGestureEnabled(this) ||
-                Utils.pocketGestureEnabled(this))) {
+        if (mProximitySensorAvailable && (settings.handwave || settings.pocket)) {
             mProximitySensor.disable();
         }
     }
 
     private void onDisplayOff() {
         if (DEBUG) Log.d(TAG, "Display off");
-        if (mTiltSensorAvailable && Utils.tiltEnabled(this)) {
+        final DozeSettingsSnapshot settings = mSettings.get();
+        if (mTiltSensorAvailable && settings.tilt) {
             mTiltSensor.enable();
         }
-        if (mPickupSensorAvailable && Utils.pickUpEnabled(this)) {
+        if (mPickupSensorAvailable && settings.pickUp) {
             mPickupSensor.enable();
         }
-        if (mProximitySensorAvailable && (Utils.handwaveGestureEnabled(this) ||
-                Utils.pocketGestureEnabled(this))) {
+        if (mProximitySensorAvailable && (settings.handwave || settings.pocket)) {
             mProximitySensor.enable();
         }
     }
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2017-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crdroid.settings.fragments.ui.doze;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.UserHandle;
+import android.provider.Settings;
+
+/**
+ * Immutable copy of the doze gesture settings. {@link DozeService} swaps in
+ * a new one whenever one of them changes, so the sensor callbacks can read
+ * them without binder calls.
+ */
+final class DozeSettingsSnapshot {
+
+    static final Uri[] URIS = {
+        Settings.Secure.getUriFor(Settings.Secure.DOZE_TILT_GESTURE),
+        Settings.Secure.getUriFor(Settings.Secure.DOZE_PICK_UP_GESTURE),
+        Settings.Secure.getUriFor(Settings.Secure.DOZE_HANDWAVE_GESTURE),
+        Settings.Secure.getUriFor(Settings.Secure.DOZE_POCKET_GESTURE),
+        Settings.Secure.getUriFor(Settings.Secure.RAISE_TO_WAKE_GESTURE),
+        Settings.Secure.getUriFor(Settings.Secure.DOZE_GESTURE_VIBRATE),
+    };
+
+    final boolean tilt;
+    final boolean pickUp;
+    final boolean handwave;
+    final boolean pocket;
+    final boolean raiseToWake;
+    // Vibration length in ms, 0 for none
+    final int vibrateMs;
+
+    private DozeSettingsSnapshot(Context context) {
+        tilt = Utils.tiltEnabled(context);
+        pickUp = Utils.pickUpEnabled(context);
+        handwave = Utils.handwaveGestureEnabled(context);
+        pocket = Utils.pocketGestureEnabled(context);
+        raiseToWake = Utils.isRaiseToWakeEnabled(context);
+        vibrateMs = Settings.Secure.getIntForUser(context.getContentResolver(),
+                Settings.Secure.DOZE_GESTURE_VIBRATE, 0, UserHandle.USER_CURRENT);
+    }
+
+    static DozeSettingsSnapshot read(Context context) {
+        return new DozeSettingsSnapshot(context);
+    }
+}
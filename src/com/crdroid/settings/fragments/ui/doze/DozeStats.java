@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crdroid.settings.fragments.ui.doze;
+
+import java.io.PrintWriter;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free counters of what the doze gesture sensors did since the process
+ * started. Updated from the sensor hub thread, read by {@link DozeService}
+ * dumps and the doze settings screen.
+ */
+public final class DozeStats {
+
+    static final int SENSOR_TILT = 0;
+    static final int SENSOR_PICKUP = 1;
+    static final int SENSOR_PROXIMITY = 2;
+    private static final String[] SENSOR_NAMES = { "tilt", "pickup", "proximity" };
+
+    private static final int EVENTS = 0;
+    private static final int PULSES = 1;
+    private static final int WAKE_UPS = 2;
+    // Detections dropped because the last pulse was too recent
+    private static final int RATE_LIMITED = 3;
+    // Wake locks are held until their timeout, so this is the sum of those
+    private static final int WAKELOCK_MS = 4;
+    private static final int COUNTERS = 5;
+
+    private static final AtomicLongArray sCounters =
+            new AtomicLongArray(SENSOR_NAMES.length * COUNTERS);
+
+    private DozeStats() {
+    }
+
+    static void onEvent(int sensor) {
+        add(sensor, EVENTS, 1);
+    }
+
+    static void onPulse(int sensor) {
+        add(sensor, PULSES, 1);
+    }
+
+    static void onWakeUp(int sensor, long wakelockMs) {
+        add(sensor, WAKE_UPS, 1);
+        add(sensor, WAKELOCK_MS, wakelockMs);
+    }
+
+    static void onRateLimited(int sensor) {
+        add(sensor, RATE_LIMITED, 1);
+    }
+
+    public static long getPulses() {
+        return sum(PULSES);
+    }
+
+    public static long getWakeUps() {
+        return sum(WAKE_UPS);
+    }
+
+    public static long getRateLimited() {
+        return sum(RATE_LIMITED);
+    }
+
+    public static long getWakelockMs() {
+        return sum(WAKELOCK_MS);
+    }
+
+    static void dump(PrintWriter pw) {
+        pw.println("Doze gesture stats:");
+        for (int sensor = 0; sensor < SENSOR_NAMES.length; sensor++) {
+            pw.println("  " + SENSOR_NAMES[sensor] + ":"
+                    + " events=" + get(sensor, EVENTS)
+                    + " pulses=" + get(sensor, PULSES)
+                    + " wakeUps=" + get(sensor, WAKE_UPS)
+                    + " rateLimited=" + get(sensor, RATE_LIMITED)
+                    + " wakelockMs=" + get(sensor, WAKELOCK_MS));
+        }
+    }
+
+    private static void add(int sensor, int counter, long delta) {
+        sCounters.addAndGet(sensor * COUNTERS + counter, delta);
+    }
+
+    private static long get(int sensor, int counter) {
+        return sCounters.get(sensor * COUNTERS + counter);
+    }
+
+    private static long sum(int counter) {
+        long sum = 0;
+        for (int sensor = 0; sensor < SENSOR_NAMES.length; sensor++) {
+            sum += get(sensor, counter);
+        }
+        return sum;
+    }
+}
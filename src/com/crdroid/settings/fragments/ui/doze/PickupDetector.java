@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2017-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crdroid.settings.fragments.ui.doze;
+
+/**
+ * Detects a pickup from raw accelerometer samples, for devices without a
+ * pickup sensor.
+ *
+ * Gravity is tracked with a low-pass filter and subtracted, which leaves the
+ * motion of the device. The mean motion over the last few samples has to rise
+ * into the threshold range to count as a pickup, so single spikes from
+ * vibration or knocks don't. After a pickup the motion has to settle below the
+ * release threshold before the next one. Nothing is allocated per sample.
+ */
+class PickupDetector {
+
+    // Time constant of the gravity low-pass filter
+    private static final float GRAVITY_TAU_S = 0.4f;
+    // Longer gaps restart the filters, e.g. after the screen was on
+    private static final long MAX_GAP_NS = 1000000000L;
+
+    private final float mThreshold;
+    private final float mRelease;
+    private final float mMax;
+
+    private final float[] mGravity = new float[3];
+    // Ring buffer of the latest motion magnitudes
+    private final float[] mMotion;
+    private int mHead;
+    private int mCount;
+    private long mLastTimestamp;
+    private boolean mArmed;
+
+    /**
+     * @param samples number of samples the motion is averaged over
+     * @param threshold mean motion (m/s^2) a pickup starts at
+     * @param release mean motion the device has to settle below again
+     * @param max mean motion above which it is a shake rather than a pickup
+     */
+    PickupDetector(int samples, float threshold, float release, float max) {
+        mMotion = new float[Math.max(1, samples)];
+        mThreshold = threshold;
+        mRelease = release;
+        mMax = max;
+    }
+
+    /** Feeds one sample, returns true if it completes a pickup. */
+    boolean onSample(float x, float y, float z, long timestampNs) {
+        final long dt = timestampNs - mLastTimestamp;
+        if (mLastTimestamp == 0 || dt <= 0 || dt > MAX_GAP_NS) {
+            // Start over from the current orientation
+            mGravity[0] = x;
+            mGravity[1] = y;
+            mGravity[2] = z;
+            mHead = 0;
+            mCount = 0;
+            mLastTimestamp = timestampNs;
+            mArmed = true;
+            return false;
+        }
+        mLastTimestamp = timestampNs;
+
+        final float dtS = dt / 1e9f;
+        final float alpha = dtS / (GRAVITY_TAU_S + dtS);
+        mGravity[0] += alpha * (x - mGravity[0]);
+        mGravity[1] += alpha * (y - mGravity[1]);
+        mGravity[2] += alpha * (z - mGravity[2]);
+
+        final float mx = x - mGravity[0];
+        final float my = y - mGravity[1];
+        final float mz = z - mGravity[2];
+        mMotion[mHead] = (float) Math.sqrt(mx * mx + my * my + mz * mz);
+        mHead = (mHead + 1) % mMotion.length;
+        if (mCount < mMotion.length) {
+            mCount++;
+            return false;
+        }
+
+        float sum = 0;
+        for (float motion : mMotion) {
+            sum += motion;
+        }
+        final float mean = sum / mMotion.length;
+
+        if (!mArmed) {
+            mArmed = mean < mRelease;
+            return false;
+        }
+        if (mean >= mThreshold && mean <= mMax) {
+            mArmed = false;
+            return true;
+        }
+        return false;
+    }
+}
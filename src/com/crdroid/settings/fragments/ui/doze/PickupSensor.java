@@ -21,71 +21,71 @@ import android.content.res.Resources;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
-import android.hardware.SensorManager;
 import android.os.PowerManager;
 import android.os.PowerManager.WakeLock;
 import android.os.SystemClock;
-import android.os.UserHandle;
 import android.os.VibrationEffect;
 import android.os.Vibrator;
-import android.provider.Settings;
 import android.telephony.TelephonyManager;
 import android.util.Log;
 
 import com.android.settings.R;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 public class PickupSensor implements SensorEventListener {
     private static final boolean DEBUG = false;
     private static final String TAG = "PickupSensor";
 
-    private SensorManager mSensorManager;
+    // 200ms, same as SENSOR_DELAY_NORMAL
+    private static final int SENSOR_PERIOD_US = 200000;
+
     private Sensor mSensorPickup;
     private Context mContext;
     private TelephonyManager telephonyManager;
-    private ExecutorService mExecutorService;
+    private SensorHub mSensorHub;
+    private Supplier<DozeSettingsSnapshot> mSettings;
     private PowerManager mPowerManager;
     private WakeLock mWakeLock;
 
     private boolean mIsCustomPickupSensor;
     private int mMinPulseIntervalMs;
     private int mWakelockTimeoutMs;
+    private int mSamplingPeriodMs;
+    private int mBatchLatencyInMs;
 
-    private float[] mGravity;
-    private float mAccelLast;
-    private float mAccelCurrent;
+    // Only used with the accelerometer, touched on the sensor hub thread
+    private PickupDetector mDetector;
     private long mEntryTimestamp = 0;
     private float mSensorValue;
 
     private Vibrator mVibrator;
 
-    public PickupSensor(Context context) {
+    public PickupSensor(Context context, SensorHub sensorHub,
+            Supplier<DozeSettingsSnapshot> settings) {
         mContext = context;
+        mSensorHub = sensorHub;
+        mSettings = settings;
         final Resources res = context.getResources();
-        mSensorManager = mContext.getSystemService(SensorManager.class);
         mSensorValue = res.getFloat(R.dimen.pickup_sensor_value);
         final String pickup_sensor = res.getString(R.string.pickup_sensor);
         boolean checkCustomPickupSensor = pickup_sensor != null && !pickup_sensor.isEmpty();
         if (checkCustomPickupSensor) {
-            for (Sensor sensor : mSensorManager.getSensorList(Sensor.TYPE_ALL)) {
-                if (pickup_sensor.equals(sensor.getStringType())) {
-                    mSensorPickup = sensor;
-                    mIsCustomPickupSensor = true;
-                    break;
-                }
-            }
+            mSensorPickup = sensorHub.getSensor(pickup_sensor);
+            mIsCustomPickupSensor = mSensorPickup != null;
         }
         if (mSensorPickup == null)
-            mSensorPickup = mSensorManager.getDefaultSensor(Sensor.TYPE_PICK_UP_GESTURE);
+            mSensorPickup = sensorHub.getDefaultSensor(Sensor.TYPE_PICK_UP_GESTURE);
         if (mSensorPickup == null)
-            mSensorPickup = mSensorManager.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
+            mSensorPickup = sensorHub.getDefaultSensor(Sensor.TYPE_ACCELEROMETER);
         mMinPulseIntervalMs =
             res.getInteger(R.integer.config_dozePulsePickup_MinPulseIntervalMs);
         mWakelockTimeoutMs =
             res.getInteger(R.integer.config_dozePulsePickup_WakelockTimeoutMs);
+        mSamplingPeriodMs =
+            res.getInteger(R.integer.config_dozePulsePickup_SamplingPeriodMs);
+        mBatchLatencyInMs =
+            res.getInteger(R.integer.config_dozePulsePickup_BatchLatencyInMs);
         if (DEBUG) {
             Log.d(TAG, "Pickup sensor: " + mSensorPickup.getStringType());
             Log.d(TAG, "MinPulseIntervalMs: " + String.valueOf(mMinPulseIntervalMs));
@@ -94,65 +94,53 @@ public class PickupSensor implements SensorEventListener {
         telephonyManager = (TelephonyManager) mContext.getSystemService(Context.TELEPHONY_SERVICE);
         mPowerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
         mWakeLock = mPowerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, TAG);
-        mExecutorService = Executors.newSingleThreadExecutor();
-        mAccelLast = SensorManager.GRAVITY_EARTH;
-        mAccelCurrent = SensorManager.GRAVITY_EARTH;
+        if (mSensorPickup.getType() == Sensor.TYPE_ACCELEROMETER) {
+            mDetector = new PickupDetector(
+                    res.getInteger(R.integer.config_dozePulsePickup_MotionSamples),
+                    res.getFloat(R.dimen.pickup_motion_threshold),
+                    res.getFloat(R.dimen.pickup_motion_release),
+                    res.getFloat(R.dimen.pickup_motion_max));
+        }
         mVibrator = (Vibrator) mContext.getSystemService(Context.VIBRATOR_SERVICE);
         if (mVibrator != null && !mVibrator.hasVibrator()) {
             mVibrator = null;
         }
     }
 
-    private Future<?> submit(Runnable runnable) {
-        return mExecutorService.submit(runnable);
-    }
-
     @Override
     public void onSensorChanged(SensorEvent event) {
         if (DEBUG) Log.d(TAG, "Got sensor event: " + event.values[0]);
-
-        long delta = event.timestamp - mEntryTimestamp;
-        if (delta < mMinPulseIntervalMs) {
+        DozeStats.onEvent(DozeStats.SENSOR_PICKUP);
+
+        // The detector has to see every sample, only pulses are rate limited
+        final boolean pickedUp = mDetector != null
+                ? mDetector.onSample(event.values[0], event.values[1], event.values[2],
+                        event.timestamp)
+                : event.values[0] == mSensorValue;
+        if (!pickedUp) {
             return;
-        } else {
-            mEntryTimestamp = event.timestamp;
         }
 
-        try {
-            if (event.sensor.getType() == Sensor.TYPE_ACCELEROMETER ||
-                    event.sensor.getType() == Sensor.TYPE_PICK_UP_GESTURE) {
-                mGravity = event.values.clone();
-
-                // Movement detection
-                float x = mGravity[0];
-                float y = mGravity[1];
-                float z = mGravity[2];
-
-                mAccelLast = mAccelCurrent;
-                mAccelCurrent = (float) Math.sqrt(x * x + y * y + z * z);
-                float accDelta = Math.abs(mAccelCurrent - mAccelLast);
-                if (accDelta >= 0.1 && accDelta <= 1.5) {
-                    launchWakeOrPulse();
-                }
-            } else {
-                if (event.values[0] == mSensorValue) {
-                    launchWakeOrPulse();
-                }
-            }
-        } catch (Exception e) {
-            e.printStackTrace();
+        long delta = event.timestamp - mEntryTimestamp;
+        if (delta < mMinPulseIntervalMs * 1000000L) {
+            DozeStats.onRateLimited(DozeStats.SENSOR_PICKUP);
+            return;
         }
+        mEntryTimestamp = event.timestamp;
+        launchWakeOrPulse();
     }
 
     private void launchWakeOrPulse() {
-        boolean isRaiseToWake = Utils.isRaiseToWakeEnabled(mContext);
+        boolean isRaiseToWake = mSettings.get().raiseToWake;
         if (isRaiseToWake) {
             mWakeLock.acquire(mWakelockTimeoutMs);
             mPowerManager.wakeUp(SystemClock.uptimeMillis(),
                 PowerManager.WAKE_REASON_GESTURE, TAG);
+            DozeStats.onWakeUp(DozeStats.SENSOR_PICKUP, mWakelockTimeoutMs);
         } else {
             Utils.launchDozePulse(mContext);
             doHapticFeedback();
+            DozeStats.onPulse(DozeStats.SENSOR_PICKUP);
         }
     }
 
@@ -163,26 +151,26 @@ public class PickupSensor implements SensorEventListener {
 
     protected void enable() {
         if (DEBUG) Log.d(TAG, "Enabling");
-        submit(() -> {
-            mSensorManager.registerListener(this, mSensorPickup,
-                    mIsCustomPickupSensor ? SensorManager.SENSOR_DELAY_NORMAL
-                    : SensorManager.SENSOR_STATUS_ACCURACY_HIGH);
-        });
+        if (mSensorPickup.getType() == Sensor.TYPE_ACCELEROMETER) {
+            // Continuous stream, let the sensor hub batch it
+            mSensorHub.register(this, mSensorPickup, mSamplingPeriodMs * 1000,
+                    mBatchLatencyInMs * 1000);
+        } else {
+            // Gesture sensors only report on change
+            mSensorHub.register(this, mSensorPickup, SENSOR_PERIOD_US, 0);
+        }
     }
 
     protected void disable() {
         if (DEBUG) Log.d(TAG, "Disabling");
-        submit(() -> {
-            mSensorManager.unregisterListener(this, mSensorPickup);
-        });
+        mSensorHub.unregister(this, mSensorPickup);
     }
 
     private void doHapticFeedback() {
         if (mVibrator == null) {
             return;
         }
-        int val = Settings.Secure.getIntForUser(mContext.getContentResolver(),
-                Settings.Secure.DOZE_GESTURE_VIBRATE, 0, UserHandle.USER_CURRENT);
+        int val = mSettings.get().vibrateMs;
         if (val > 0) {
             mVibrator.vibrate(VibrationEffect.createOneShot(val,
                     VibrationEffect.DEFAULT_AMPLITUDE));
@@ -21,31 +21,29 @@ import android.content.res.Resources;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
-import android.hardware.SensorManager;
 import android.os.PowerManager;
 import android.os.PowerManager.WakeLock;
 import android.os.SystemClock;
-import android.os.UserHandle;
 import android.os.VibrationEffect;
 import android.os.Vibrator;
-import android.provider.Settings;
 import android.util.Log;
 
 import com.android.settings.R;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 public class ProximitySensor implements SensorEventListener {
 
     private static final boolean DEBUG = false;
     private static final String TAG = "ProximitySensor";
 
-    private SensorManager mSensorManager;
+    // 200ms, same as SENSOR_DELAY_NORMAL
+    private static final int SENSOR_PERIOD_US = 200000;
+
     private Sensor mSensor;
     private Context mContext;
-    private ExecutorService mExecutorService;
+    private SensorHub mSensorHub;
+    private Supplier<DozeSettingsSnapshot> mSettings;
     private PowerManager mPowerManager;
     private WakeLock mWakeLock;
 
@@ -54,22 +52,25 @@ public class ProximitySensor implements SensorEventListener {
     private int mWakelockTimeoutMs;
     private int mHandWaveMaxDeltaNs;
     private int mPocketMinDeltaNs;
+    private int mBatchLatencyInMs;
 
     private Vibrator mVibrator;
 
-    public ProximitySensor(Context context) {
+    public ProximitySensor(Context context, SensorHub sensorHub,
+            Supplier<DozeSettingsSnapshot> settings) {
         mContext = context;
+        mSensorHub = sensorHub;
+        mSettings = settings;
         final Resources res = context.getResources();
-        mSensorManager = mContext.getSystemService(SensorManager.class);
-        final boolean wakeup =
-            res.getBoolean(com.android.internal.R.bool.config_deviceHaveWakeUpProximity);
-        mSensor = mSensorManager.getDefaultSensor(Sensor.TYPE_PROXIMITY, wakeup);
+        mSensor = sensorHub.getDefaultSensor(Sensor.TYPE_PROXIMITY);
         mWakelockTimeoutMs =
             res.getInteger(R.integer.config_dozePulseProximity_WakelockTimeoutMs);
         mHandWaveMaxDeltaNs =
             res.getInteger(R.integer.config_dozePulseProximity_HandwaveMaxDeltaNs);
         mPocketMinDeltaNs =
             res.getInteger(R.integer.config_dozePulseProximity_PocketMinDeltaNs);
+        mBatchLatencyInMs =
+            res.getInteger(R.integer.config_dozePulseProximity_BatchLatencyInMs);
         if (DEBUG) {
             Log.d(TAG, "WakelockTimeoutMs: " + String.valueOf(mWakelockTimeoutMs));
             Log.d(TAG, "HandwaveMaxDeltaNs: " + String.valueOf(mHandWaveMaxDeltaNs));
@@ -77,20 +78,16 @@ public class ProximitySensor implements SensorEventListener {
         }
         mPowerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
         mWakeLock = mPowerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, TAG);
-        mExecutorService = Executors.newSingleThreadExecutor();
         mVibrator = (Vibrator) mContext.getSystemService(Context.VIBRATOR_SERVICE);
         if (mVibrator != null && !mVibrator.hasVibrator()) {
             mVibrator = null;
         }
     }
 
-    private Future<?> submit(Runnable runnable) {
-        return mExecutorService.submit(runnable);
-    }
-
     @Override
     public void onSensorChanged(SensorEvent event) {
-        boolean isRaiseToWake = Utils.isRaiseToWakeEnabled(mContext);
+        DozeStats.onEvent(DozeStats.SENSOR_PROXIMITY);
+        boolean isRaiseToWake = mSettings.get().raiseToWake;
         boolean isNear = event.values[0] < mSensor.getMaximumRange();
         if (mSawNear && !isNear) {
             if (shouldPulse(event.timestamp)) {
@@ -98,9 +95,11 @@ public class ProximitySensor implements SensorEventListener {
                     mWakeLock.acquire(mWakelockTimeoutMs);
                     mPowerManager.wakeUp(SystemClock.uptimeMillis(),
                         PowerManager.WAKE_REASON_GESTURE, TAG);
+                    DozeStats.onWakeUp(DozeStats.SENSOR_PROXIMITY, mWakelockTimeoutMs);
                 } else {
                     Utils.launchDozePulse(mContext);
                     doHapticFeedback();
+                    DozeStats.onPulse(DozeStats.SENSOR_PROXIMITY);
                 }
             }
         } else {
@@ -114,10 +113,10 @@ public class ProximitySensor implements SensorEventListener {
         boolean shouldPulse = false;
 
         if (delta < mHandWaveMaxDeltaNs)
-            shouldPulse = Utils.handwaveGestureEnabled(mContext);
+            shouldPulse = mSettings.get().handwave;
 
         if (!shouldPulse && delta >= mPocketMinDeltaNs)
-            shouldPulse = Utils.pocketGestureEnabled(mContext);
+            shouldPulse = mSettings.get().pocket;
 
         return shouldPulse;
     }
@@ -129,25 +128,19 @@ public class ProximitySensor implements SensorEventListener {
 
     protected void enable() {
         if (DEBUG) Log.d(TAG, "Enabling");
-        submit(() -> {
-            mSensorManager.registerListener(this, mSensor,
-                    SensorManager.SENSOR_DELAY_NORMAL);
-        });
+        mSensorHub.register(this, mSensor, SENSOR_PERIOD_US, mBatchLatencyInMs * 1000);
     }
 
     protected void disable() {
         if (DEBUG) Log.d(TAG, "Disabling");
-        submit(() -> {
-            mSensorManager.unregisterListener(this, mSensor);
-        });
+        mSensorHub.unregister(this, mSensor);
     }
 
     private void doHapticFeedback() {
         if (mVibrator == null) {
             return;
         }
-        int val = Settings.Secure.getIntForUser(mContext.getContentResolver(),
-                Settings.Secure.DOZE_GESTURE_VIBRATE, 0, UserHandle.USER_CURRENT);
+        int val = mSettings.get().vibrateMs;
         if (val > 0) {
             mVibrator.vibrate(VibrationEffect.createOneShot(val,
                     VibrationEffect.DEFAULT_AMPLITUDE));
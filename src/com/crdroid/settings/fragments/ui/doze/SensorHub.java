@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.crdroid.settings.fragments.ui.doze;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.hardware.TriggerEvent;
+import android.hardware.TriggerEventListener;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Process;
+import android.util.ArrayMap;
+import android.util.Log;
+
+/**
+ * Single thread the doze gesture sensors are registered on and deliver
+ * their events to, however many of them are enabled. Owned by
+ * {@link DozeService}.
+ *
+ * Trigger and on-change sensors are looked up as wake-up variants where the
+ * device has them, so they wake the AP only when they fire. Continuous
+ * sensors are looked up as non-wake-up ones, a wake-up stream would wake it
+ * for every batch. One-shot sensors are armed as trigger sensors and
+ * re-armed after each trigger.
+ */
+public class SensorHub {
+
+    private static final boolean DEBUG = false;
+    private static final String TAG = "DozeSensorHub";
+
+    private final SensorManager mSensorManager;
+    private final HandlerThread mThread;
+    private final Handler mHandler;
+    // Trigger listeners of one-shot sensors, only touched on mThread
+    private final ArrayMap<SensorEventListener, TriggerEventListener> mTriggers =
+            new ArrayMap<>();
+
+    public SensorHub(Context context) {
+        mSensorManager = context.getSystemService(SensorManager.class);
+        mThread = new HandlerThread(TAG, Process.THREAD_PRIORITY_BACKGROUND);
+        mThread.start();
+        mHandler = new Handler(mThread.getLooper());
+    }
+
+    /** Returns the default sensor of the type, in the variant it should wake up as. */
+    public Sensor getDefaultSensor(int type) {
+        final Sensor sensor = mSensorManager.getDefaultSensor(type);
+        if (sensor != null && !shouldWakeUp(sensor)) {
+            return sensor;
+        }
+        final Sensor wakeUp = mSensorManager.getDefaultSensor(type, true);
+        return wakeUp != null ? wakeUp : sensor;
+    }
+
+    /** Returns the sensor of the vendor string type, in the variant it should wake up as. */
+    public Sensor getSensor(String stringType) {
+        Sensor found = null;
+        for (Sensor sensor : mSensorManager.getSensorList(Sensor.TYPE_ALL)) {
+            if (stringType.equals(sensor.getStringType()) && (found == null
+                    || (found.isWakeUpSensor() != shouldWakeUp(found)
+                            && sensor.isWakeUpSensor() == shouldWakeUp(sensor)))) {
+                found = sensor;
+            }
+        }
+        return found;
+    }
+
+    private static boolean shouldWakeUp(Sensor sensor) {
+        return sensor.getReportingMode() != Sensor.REPORTING_MODE_CONTINUOUS;
+    }
+
+    /**
+     * Registers the listener on the hub thread. The sampling period is clamped
+     * to what the sensor supports, and batching is skipped for sensors without
+     * a FIFO.
+     */
+    protected void register(SensorEventListener listener, Sensor sensor,
+            int samplingPeriodUs, int maxReportLatencyUs) {
+        if (sensor == null) return;
+        mHandler.post(() -> {
+            if (sensor.getReportingMode() == Sensor.REPORTING_MODE_ONE_SHOT) {
+                requestTrigger(listener, sensor);
+                return;
+            }
+            int periodUs = Math.max(samplingPeriodUs, sensor.getMinDelay());
+            if (sensor.getMaxDelay() > 0) {
+                periodUs = Math.min(periodUs, sensor.getMaxDelay());
+            }
+            final int latencyUs = sensor.getFifoMaxEventCount() > 0 ? maxReportLatencyUs : 0;
+            if (DEBUG) Log.d(TAG, "Registering " + sensor.getStringType()
+                    + " period=" + periodUs + "us latency=" + latencyUs + "us");
+            mSensorManager.registerListener(listener, sensor, periodUs, latencyUs, mHandler);
+        });
+    }
+
+    protected void unregister(SensorEventListener listener, Sensor sensor) {
+        if (sensor == null) return;
+        mHandler.post(() -> {
+            if (DEBUG) Log.d(TAG, "Unregistering " + sensor.getStringType());
+            final TriggerEventListener trigger = mTriggers.remove(listener);
+            if (trigger != null) {
+                mSensorManager.cancelTriggerSensor(trigger, sensor);
+            } else {
+                mSensorManager.unregisterListener(listener, sensor);
+            }
+        });
+    }
+
+    private void requestTrigger(SensorEventListener listener, Sensor sensor) {
+        if (DEBUG) Log.d(TAG, "Arming " + sensor.getStringType());
+        TriggerEventListener trigger = mTriggers.get(listener);
+        if (trigger == null) {
+            trigger = new TriggerEventListener() {
+                @Override
+                public void onTrigger(TriggerEvent event) {
+                    // Delivered on the main looper, hand it over like any other event
+                    mHandler.post(() -> {
+                        if (mTriggers.get(listener) != this) return;
+                        listener.onSensorChanged(new SensorEvent(sensor,
+                                SensorManager.SENSOR_STATUS_ACCURACY_HIGH,
+                                event.timestamp, event.values));
+                        requestTrigger(listener, sensor);
+                    });
+                }
+            };
+            mTriggers.put(listener, trigger);
+        }
+        mSensorManager.requestTriggerSensor(trigger, sensor);
+    }
+
+    /** Stops the thread once the pending (un)registrations ran. */
+    protected void quit() {
+        mThread.quitSafely();
+    }
+}
@@ -21,31 +21,29 @@ import android.content.res.Resources;
 import android.hardware.Sensor;
 import android.hardware.SensorEvent;
 import android.hardware.SensorEventListener;
-import android.hardware.SensorManager;
 import android.os.PowerManager;
 import android.os.PowerManager.WakeLock;
 import android.os.SystemClock;
-import android.os.UserHandle;
 import android.os.VibrationEffect;
 import android.os.Vibrator;
-import android.provider.Settings;
 import android.util.Log;
 
 import com.android.settings.R;
 
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
+import java.util.function.Supplier;
 
 public class TiltSensor implements SensorEventListener {
 
     private static final boolean DEBUG = false;
     private static final String TAG = "TiltSensor";
 
-    private SensorManager mSensorManager;
+    // 200ms, same as SENSOR_DELAY_NORMAL
+    private static final int SENSOR_PERIOD_US = 200000;
+
     private Sensor mSensor;
     private Context mContext;
-    private ExecutorService mExecutorService;
+    private SensorHub mSensorHub;
+    private Supplier<DozeSettingsSnapshot> mSettings;
     private PowerManager mPowerManager;
     private WakeLock mWakeLock;
 
@@ -56,8 +54,11 @@ public class TiltSensor implements SensorEventListener {
 
     private Vibrator mVibrator;
 
-    public TiltSensor(Context context) {
+    public TiltSensor(Context context, SensorHub sensorHub,
+            Supplier<DozeSettingsSnapshot> settings) {
         mContext = context;
+        mSensorHub = sensorHub;
+        mSettings = settings;
         final Resources res = context.getResources();
         mBatchLatencyInMs =
             res.getInteger(R.integer.config_dozePulseTilt_BatchLatencyInMs);
@@ -70,43 +71,42 @@ public class TiltSensor implements SensorEventListener {
             Log.d(TAG, "MinPulseIntervalMs: " + String.valueOf(mMinPulseIntervalMs));
             Log.d(TAG, "WakelockTimeoutMs: " + String.valueOf(mWakelockTimeoutMs));
         }
-        mSensorManager = mContext.getSystemService(SensorManager.class);
-        mSensor = mSensorManager.getDefaultSensor(Sensor.TYPE_TILT_DETECTOR);
+        mSensor = sensorHub.getDefaultSensor(Sensor.TYPE_TILT_DETECTOR);
         mPowerManager = (PowerManager) mContext.getSystemService(Context.POWER_SERVICE);
         mWakeLock = mPowerManager.newWakeLock(PowerManager.PARTIAL_WAKE_LOCK, TAG);
-        mExecutorService = Executors.newSingleThreadExecutor();
         mVibrator = (Vibrator) mContext.getSystemService(Context.VIBRATOR_SERVICE);
         if (mVibrator != null && !mVibrator.hasVibrator()) {
             mVibrator = null;
         }
     }
 
-    private Future<?> submit(Runnable runnable) {
-        return mExecutorService.submit(runnable);
-    }
-
     @Override
     public void onSensorChanged(SensorEvent event) {
-        boolean isRaiseToWake = Utils.isRaiseToWakeEnabled(mContext);
+        boolean isRaiseToWake = mSettings.get().raiseToWake;
 
         if (DEBUG) Log.d(TAG, "Got sensor event: " + event.values[0]);
+        DozeStats.onEvent(DozeStats.SENSOR_TILT);
+
+        if (event.values[0] != 1) {
+            return;
+        }
 
         long delta = event.timestamp - mEntryTimestamp;
-        if (delta < mMinPulseIntervalMs) {
+        if (delta < mMinPulseIntervalMs * 1000000L) {
+            DozeStats.onRateLimited(DozeStats.SENSOR_TILT);
             return;
-        } else {
-            mEntryTimestamp = event.timestamp;
         }
+        mEntryTimestamp = event.timestamp;
 
-        if (event.values[0] == 1) {
-            if (isRaiseToWake) {
-                mWakeLock.acquire(mWakelockTimeoutMs);
-                mPowerManager.wakeUp(SystemClock.uptimeMillis(),
-                    PowerManager.WAKE_REASON_GESTURE, TAG);
-            } else {
-                Utils.launchDozePulse(mContext);
-                doHapticFeedback();
-            }
+        if (isRaiseToWake) {
+            mWakeLock.acquire(mWakelockTimeoutMs);
+            mPowerManager.wakeUp(SystemClock.uptimeMillis(),
+                PowerManager.WAKE_REASON_GESTURE, TAG);
+            DozeStats.onWakeUp(DozeStats.SENSOR_TILT, mWakelockTimeoutMs);
+        } else {
+            Utils.launchDozePulse(mContext);
+            doHapticFeedback();
+            DozeStats.onPulse(DozeStats.SENSOR_TILT);
         }
     }
 
@@ -117,26 +117,19 @@ public class TiltSensor implements SensorEventListener {
 
     protected void enable() {
         if (DEBUG) Log.d(TAG, "Enabling");
-        submit(() -> {
-            mSensorManager.registerListener(this, mSensor,
-                    SensorManager.SENSOR_DELAY_NORMAL,
-                    mBatchLatencyInMs * 1000);
-        });
+        mSensorHub.register(this, mSensor, SENSOR_PERIOD_US, mBatchLatencyInMs * 1000);
     }
 
     protected void disable() {
         if (DEBUG) Log.d(TAG, "Disabling");
-        submit(() -> {
-            mSensorManager.unregisterListener(this, mSensor);
-        });
+        mSensorHub.unregister(this, mSensor);
     }
 
     private void doHapticFeedback() {
         if (mVibrator == null) {
             return;
         }
-        int val = Settings.Secure.getIntForUser(mContext.getContentResolver(),
-                Settings.Secure.DOZE_GESTURE_VIBRATE, 0, UserHandle.USER_CURRENT);
+        int val = mSettings.get().vibrateMs;
         if (val > 0) {
             mVibrator.vibrate(VibrationEffect.createOneShot(val,
                     VibrationEffect.DEFAULT_AMPLITUDE));
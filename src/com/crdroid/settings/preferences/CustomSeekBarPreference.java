@@ -29,7 +29,11 @@ import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import androidx.core.content.res.ResourcesCompat;
 import androidx.core.view.ViewCompat;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
 import androidx.preference.Preference;
+import androidx.preference.PreferenceDataStore;
+import androidx.preference.PreferenceManager;
 import androidx.preference.PreferenceViewHolder;
 
 import com.android.settings.R;
@@ -56,6 +60,21 @@ public class CustomSeekBarPreference extends SliderPreference {
 
     private boolean mInUserDrag = false;
 
+    @Nullable
+    private LifecycleOwner mLifecycleOwner;
+    private final DefaultLifecycleObserver mPauseObserver = new DefaultLifecycleObserver() {
+        @Override
+        public void onPause(@NonNull LifecycleOwner owner) {
+            flushPendingWrites();
+        }
+    };
+    // Held here, the observer hub only keeps a weak reference
+    private final SettingsObservers.Listener mSettingsListener = (table, key) -> {
+        if (!mInUserDrag) {
+            setValue(getPersistedInt(getValue()));
+        }
+    };
+
     public CustomSeekBarPreference(Context context, AttributeSet attrs) {
         super(context, attrs);
         readLegacyAttrs(context, attrs);
@@ -179,6 +198,47 @@ public class CustomSeekBarPreference extends SliderPreference {
         updateSummaryNow();
     }
 
+    @Override
+    public void setPreferenceDataStore(@Nullable PreferenceDataStore dataStore) {
+        // Coalesce the values persisted while dragging, see flushPendingWrites()
+        if (dataStore instanceof SettingsStore) {
+            ((SettingsStore) dataStore).setWriteBehind(true);
+        }
+        super.setPreferenceDataStore(dataStore);
+    }
+
+    @Override
+    protected void onAttachedToHierarchy(@NonNull PreferenceManager preferenceManager) {
+        SettingsStats.attachScope(getPreferenceDataStore(), preferenceManager);
+        super.onAttachedToHierarchy(preferenceManager);
+    }
+
+    @Override
+    public void onAttached() {
+        super.onAttached();
+        mLifecycleOwner = SettingsObservers.findLifecycleOwner(getContext());
+        if (mLifecycleOwner != null) {
+            mLifecycleOwner.getLifecycle().addObserver(mPauseObserver);
+        }
+        final PreferenceDataStore dataStore = getPreferenceDataStore();
+        if (dataStore instanceof SettingsStore) {
+            SettingsObservers.getInstance().subscribe(mLifecycleOwner,
+                    getContext().getContentResolver(), ((SettingsStore) dataStore).getTable(),
+                    getKey(), mSettingsListener);
+        }
+    }
+
+    @Override
+    public void onDetached() {
+        flushPendingWrites();
+        SettingsObservers.getInstance().unsubscribe(mSettingsListener);
+        if (mLifecycleOwner != null) {
+            mLifecycleOwner.getLifecycle().removeObserver(mPauseObserver);
+            mLifecycleOwner = null;
+        }
+        super.onDetached();
+    }
+
     @Override
     public void onBindViewHolder(@NonNull PreferenceViewHolder holder) {
         super.onBindViewHolder(holder);
@@ -265,6 +325,7 @@ public class CustomSeekBarPreference extends SliderPreference {
                 public void onStopTrackingTouch(@NonNull Slider s) {
                     mInUserDrag = false;
                     applyUserValue(Math.round(s.getValue()), s);
+                    flushPendingWrites();
                     updatePlusMinusEnabledStates(holder);
                 }
             });
@@ -288,6 +349,13 @@ public class CustomSeekBarPreference extends SliderPreference {
         notifyChanged();
     }
 
+    private void flushPendingWrites() {
+        final PreferenceDataStore dataStore = getPreferenceDataStore();
+        if (dataStore instanceof SettingsStore) {
+            ((SettingsStore) dataStore).flush();
+        }
+    }
+
     private static int gcd(int a, int b) {
         a = Math.abs(a); b = Math.abs(b);
         if (a == 0) return b;
@@ -17,13 +17,16 @@ package com.crdroid.settings.preferences;
 
 import android.content.Context;
 import androidx.preference.ListPreference;
+import androidx.preference.PreferenceManager;
 import android.text.TextUtils;
 import android.util.AttributeSet;
 import android.provider.Settings;
 
-public class GlobalSettingListPreference extends ListPreference {
+public class GlobalSettingListPreference extends ListPreference
+        implements SettingsObservers.Listener {
 
     private boolean mAutoSummary = false;
+    private boolean mApplyingChange;
 
     public GlobalSettingListPreference(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
@@ -70,4 +73,44 @@ public class GlobalSettingListPreference extends ListPreference {
     public int getIntValue(int defValue) {
         return getValue() == null ? defValue : Integer.valueOf(getValue());
     }
+
+    @Override
+    protected void onAttachedToHierarchy(PreferenceManager preferenceManager) {
+        SettingsStats.attachScope(getPreferenceDataStore(), preferenceManager);
+        super.onAttachedToHierarchy(preferenceManager);
+    }
+
+    @Override
+    public void onAttached() {
+        super.onAttached();
+        SettingsObservers.getInstance().subscribe(
+                SettingsObservers.findLifecycleOwner(getContext()),
+                getContext().getContentResolver(), SettingsTable.GLOBAL, getKey(), this);
+    }
+
+    @Override
+    public void onDetached() {
+        SettingsObservers.getInstance().unsubscribe(this);
+        super.onDetached();
+    }
+
+    @Override
+    protected boolean persistString(String value) {
+        // Nothing to write back when the value came from the provider
+        if (mApplyingChange) return false;
+        return super.persistString(value);
+    }
+
+    @Override
+    public void onSettingChanged(SettingsTable table, String key) {
+        final String value = getPersistedString(getValue());
+        if (!TextUtils.equals(value, getValue())) {
+            mApplyingChange = true;
+            try {
+                setValue(value);
+            } finally {
+                mApplyingChange = false;
+            }
+        }
+    }
 }
@@ -16,13 +16,17 @@
 package com.crdroid.settings.preferences;
 
 import android.content.Context;
-import android.provider.Settings;
-import android.os.UserHandle;
 import android.util.AttributeSet;
 
+import androidx.preference.PreferenceManager;
+
 import lineageos.preference.SelfRemovingSwitchPreference;
 
-public class GlobalSettingSwitchPreference extends SelfRemovingSwitchPreference {
+public class GlobalSettingSwitchPreference extends SelfRemovingSwitchPreference
+        implements SettingsObservers.Listener {
+
+    private GlobalSettingsStore mStore;
+    private boolean mApplyingChange;
 
     public GlobalSettingSwitchPreference(Context context, AttributeSet attrs, int defStyle) {
         super(context, attrs, defStyle);
@@ -36,19 +40,63 @@ public class GlobalSettingSwitchPreference extends SelfRemovingSwitchPreference
         super(context);
     }
 
+    private GlobalSettingsStore getStore() {
+        // Lazily created, the lineage base class may query us from its constructor
+        if (mStore == null) {
+            mStore = new GlobalSettingsStore(getContext().getContentResolver());
+        }
+        return mStore;
+    }
+
     @Override
     protected boolean isPersisted() {
-        return Settings.Global.getString(getContext().getContentResolver(), getKey()) != null;
+        return getStore().contains(getKey());
     }
 
     @Override
     protected void putBoolean(String key, boolean value) {
-        Settings.Global.putInt(getContext().getContentResolver(), key, value ? 1 : 0);
+        getStore().putBoolean(key, value);
     }
 
     @Override
     protected boolean getBoolean(String key, boolean defaultValue) {
-        return Settings.Global.getInt(getContext().getContentResolver(),
-                key, defaultValue ? 1 : 0) != 0;
+        return getStore().getBoolean(key, defaultValue);
+    }
+
+    @Override
+    protected void onAttachedToHierarchy(PreferenceManager preferenceManager) {
+        SettingsStats.attachScope(getStore(), preferenceManager);
+        super.onAttachedToHierarchy(preferenceManager);
+    }
+
+    @Override
+    public void onAttached() {
+        super.onAttached();
+        SettingsObservers.getInstance().subscribe(
+                SettingsObservers.findLifecycleOwner(getContext()),
+                getContext().getContentResolver(), SettingsTable.GLOBAL, getKey(), this);
+    }
+
+    @Override
+    public void onDetached() {
+        SettingsObservers.getInstance().unsubscribe(this);
+        super.onDetached();
+    }
+
+    @Override
+    protected boolean persistBoolean(boolean value) {
+        // Nothing to write back when the value came from the provider
+        if (mApplyingChange) return false;
+        return super.persistBoolean(value);
+    }
+
+    @Override
+    public void onSettingChanged(SettingsTable table, String key) {
+        mApplyingChange = true;
+        try {
+            setChecked(getBoolean(key, isChecked()));
+        } finally {
+            mApplyingChange = false;
+        }
     }
 }
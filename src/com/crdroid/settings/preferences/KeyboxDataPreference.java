@@ -18,18 +18,17 @@ import androidx.preference.PreferenceViewHolder;
 
 import com.android.settings.R;
 
-import org.xmlpull.v1.XmlPullParser;
-import org.xmlpull.v1.XmlPullParserFactory;
+import com.crdroid.settings.utils.KeyboxXml;
 
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.StringReader;
 
 public class KeyboxDataPreference extends Preference {
 
     private static final String TAG = "KeyboxDataPref";
+
     private ActivityResultLauncher<Intent> mFilePickerLauncher;
 
     public KeyboxDataPreference(Context context, AttributeSet attrs) {
@@ -111,7 +110,7 @@ public class KeyboxDataPreference extends Preference {
             }
 
             String xml = xmlContent.toString();
-            if (!validateXml(xml)) {
+            if (!KeyboxXml.isValid(xml)) {
                 Toast.makeText(ctx,
                     ctx.getString(R.string.keybox_toast_missing_data), Toast.LENGTH_SHORT).show();
                 return;
@@ -128,85 +127,4 @@ public class KeyboxDataPreference extends Preference {
                 ctx.getString(R.string.keybox_toast_invalid_file_selected), Toast.LENGTH_SHORT).show();
         }
     }
-
-    private boolean validateXml(String xml) {
-        boolean hasEcdsaKey = false, hasRsaKey = false;
-        boolean hasEcdsaPrivKey = false, hasRsaPrivKey = false;
-        int ecdsaCertCount = 0, rsaCertCount = 0;
-        int numberOfKeyboxes = -1;
-
-        try {
-            XmlPullParser parser = XmlPullParserFactory.newInstance().newPullParser();
-            parser.setInput(new StringReader(xml));
-
-            String currentAlg = null;
-
-            for (int eventType = parser.next(); eventType != XmlPullParser.END_DOCUMENT; eventType = parser.next()) {
-                if (eventType == XmlPullParser.START_TAG) {
-                    String name = parser.getName();
-                    switch (name) {
-                        case "NumberOfKeyboxes":
-                            parser.next(); // move to TEXT event
-                            if (parser.getEventType() == XmlPullParser.TEXT) {
-                                try {
-                                    numberOfKeyboxes = Integer.parseInt(parser.getText().trim());
-                                } catch (NumberFormatException e) {
-                                    numberOfKeyboxes = -1;
-                                }
-                            }
-                            break;
-
-                        case "Key":
-                            currentAlg = parser.getAttributeValue(null, "algorithm");
-                            if ("ecdsa".equalsIgnoreCase(currentAlg)) {
-                                hasEcdsaKey = true;
-                            } else if ("rsa".equalsIgnoreCase(currentAlg)) {
-                                hasRsaKey = true;
-                            } else {
-                                currentAlg = null; // unsupported key
-                            }
-                            break;
-
-                        case "PrivateKey": {
-                            String format = parser.getAttributeValue(null, "format");
-                            if (!"pem".equalsIgnoreCase(format)) {
-                                Log.w(TAG, "Invalid or missing format for PrivateKey");
-                                return false;
-                            }
-                            if ("ecdsa".equalsIgnoreCase(currentAlg)) {
-                                hasEcdsaPrivKey = true;
-                            } else if ("rsa".equalsIgnoreCase(currentAlg)) {
-                                hasRsaPrivKey = true;
-                            }
-                            break;
-                        }
-
-                        case "Certificate": {
-                            String format = parser.getAttributeValue(null, "format");
-                            if (!"pem".equalsIgnoreCase(format)) {
-                                Log.w(TAG, "Invalid or missing format for Certificate");
-                                return false;
-                            }
-
-                            if ("ecdsa".equalsIgnoreCase(currentAlg)) {
-                                ecdsaCertCount++;
-                            } else if ("rsa".equalsIgnoreCase(currentAlg)) {
-                                rsaCertCount++;
-                            }
-                            break;
-                        }
-                    }
-                } else if (eventType == XmlPullParser.END_TAG && "Key".equals(parser.getName())) {
-                    currentAlg = null;
-                }
-            }
-        } catch (Exception e) {
-            Log.e(TAG, "XML validation failed", e);
-            return false;
-        }
-
-        return numberOfKeyboxes == 1
-                && hasEcdsaKey && hasEcdsaPrivKey && ecdsaCertCount >= 1
-                && hasRsaKey && hasRsaPrivKey && rsaCertCount >= 1;
-    }
 }
@@ -17,37 +17,91 @@
 
 package com.crdroid.settings.preferences;
 
+import android.content.BroadcastReceiver;
 import android.content.Context;
 import android.content.Intent;
+import android.content.IntentFilter;
 import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageInfo;
 import android.content.pm.PackageManager;
 import android.content.pm.ResolveInfo;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
 import android.graphics.drawable.Drawable;
+import android.net.Uri;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
+import android.text.Editable;
 import android.text.TextUtils;
+import android.text.TextWatcher;
+import android.util.Pair;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
 import android.widget.BaseAdapter;
+import android.widget.EditText;
 import android.widget.ImageView;
 import android.widget.TextView;
 
+import androidx.annotation.NonNull;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
 import com.android.settings.R;
 
+import com.crdroid.settings.utils.AppIconCache;
+import com.crdroid.settings.utils.AppIndex;
+import com.crdroid.settings.utils.AppLoadExecutor;
+import com.crdroid.settings.utils.IntentQueryCache;
+import com.crdroid.settings.utils.PackageListUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class PackageListAdapter extends BaseAdapter {
+    // Loaded items are handed over to the main thread at most once per frame
+    private static final long FRAME_MS = 16;
 
-public class PackageListAdapter extends BaseAdapter implements Runnable {
+    private static final int MSG_ADD = 0;
+    private static final int MSG_REPLACE = 1;
+    private static final int MSG_ICONS = 2;
+    private static final int MSG_PATCH = 3;
+
+    private final Context mContext;
     private final PackageManager mPm;
+    private final AppIconCache mIconCache;
+    private final AppIndex mIndex;
+    private final IntentQueryCache mQueryCache;
+    private final Resources mResources;
     private final LayoutInflater mInflater;
-    private final List<PackageItem> mInstalledPackages = new LinkedList<>();
+    // Sorted, only touched on the main thread
+    private List<PackageItem> mInstalledPackages = new ArrayList<>();
+    // mInstalledPackages narrowed down by mFilter
+    private List<PackageItem> mVisiblePackages = mInstalledPackages;
+    private String mFilter = "";
+    private final Map<String, PackageItem> mItemsByPackage = new HashMap<>();
     private Set<String> mExcludedPackages = new HashSet<>();
+    // Bumped on every reload so results of an older load are dropped
+    private int mGeneration;
+    private Load mLoad;
+    // Set while mPackageReceiver is registered, it is unregistered with its lifecycle
+    private LifecycleOwner mLifecycleOwner;
 
     // Packages which don't have launcher icons, but which we want to show nevertheless
     private static final String[] PACKAGE_WHITELIST = new String[] {
@@ -59,14 +113,48 @@ public class PackageListAdapter extends BaseAdapter implements Runnable {
     private final Handler mHandler = new Handler(Looper.getMainLooper()) {
         @Override
         public void handleMessage(Message msg) {
-            PackageItem item = (PackageItem) msg.obj;
-            int index = Collections.binarySearch(mInstalledPackages, item);
-            if (index < 0) {
-                mInstalledPackages.add(-index - 1, item);
-            } else {
-                mInstalledPackages.get(index).activityTitles.addAll(item.activityTitles);
+            if (msg.arg1 != mGeneration || mLoad == null) return;
+            switch (msg.what) {
+                case MSG_ADD:
+                    publish(mLoad.drainItems());
+                    break;
+                case MSG_REPLACE:
+                    @SuppressWarnings("unchecked")
+                    List<PackageItem> items = (List<PackageItem>) msg.obj;
+                    Collections.sort(items);
+                    setItems(items);
+                    break;
+                case MSG_ICONS:
+                    applyIcons(mLoad.drainIcons());
+                    break;
+                case MSG_PATCH:
+                    @SuppressWarnings("unchecked")
+                    Pair<String, PackageItem> patch = (Pair<String, PackageItem>) msg.obj;
+                    applyPatch(patch.first, patch.second);
+                    break;
             }
-            notifyDataSetChanged();
+        }
+    };
+
+    private final BroadcastReceiver mPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final Uri data = intent.getData();
+            if (data == null) return;
+            if (Intent.ACTION_PACKAGE_REMOVED.equals(intent.getAction())
+                    && intent.getBooleanExtra(Intent.EXTRA_REPLACING, false)) {
+                // Updated, ACTION_PACKAGE_ADDED follows
+                return;
+            }
+            mQueryCache.invalidate();
+            updatePackage(data.getSchemeSpecificPart());
+        }
+    };
+
+    private final DefaultLifecycleObserver mLifecycleObserver = new DefaultLifecycleObserver() {
+        @Override
+        public void onDestroy(@NonNull LifecycleOwner owner) {
+            release();
         }
     };
 
@@ -74,12 +162,17 @@ public class PackageListAdapter extends BaseAdapter implements Runnable {
         public final String packageName;
         public final CharSequence title;
         private final TreeSet<CharSequence> activityTitles = new TreeSet<>();
-        public final Drawable icon;
+        // Null until loaded, set on the main thread
+        public Drawable icon;
+        // Normalized label and package name, matched against the filter
+        private final String searchKey;
 
         PackageItem(String packageName, CharSequence title, Drawable icon) {
             this.packageName = packageName;
             this.title = title;
             this.icon = icon;
+            this.searchKey = PackageListUtils.normalizeForSearch(title.toString())
+                    + '\n' + packageName.toLowerCase(Locale.ROOT);
         }
 
         @Override
@@ -89,32 +182,60 @@ public class PackageListAdapter extends BaseAdapter implements Runnable {
         }
     }
 
+    /**
+     * The list follows package changes as long as the context has a lifecycle
+     * (see {@link SettingsObservers#findLifecycleOwner}), until it is destroyed
+     * or {@link #release()} is called.
+     */
     public PackageListAdapter(Context context) {
+        mContext = context;
         mPm = context.getPackageManager();
+        mIconCache = AppIconCache.getInstance(context);
+        mIndex = AppIndex.getInstance(context);
+        mQueryCache = IntentQueryCache.getInstance(context);
+        mResources = context.getResources();
         mInflater = LayoutInflater.from(context);
         reloadList();
+
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addDataScheme("package");
+        // Without a lifecycle nothing would ever unregister it
+        mLifecycleOwner = SettingsObservers.findLifecycleOwner(context);
+        if (mLifecycleOwner != null) {
+            context.registerReceiver(mPackageReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
+            mLifecycleOwner.getLifecycle().addObserver(mLifecycleObserver);
+        }
+    }
+
+    /**
+     * Stops loading and following package changes, for owners that go away
+     * before their context does.
+     */
+    public void release() {
+        cancel();
+        if (mLifecycleOwner == null) return;
+        mLifecycleOwner.getLifecycle().removeObserver(mLifecycleObserver);
+        mLifecycleOwner = null;
+        mContext.unregisterReceiver(mPackageReceiver);
     }
 
     @Override
     public int getCount() {
-        synchronized (mInstalledPackages) {
-            return mInstalledPackages.size();
-        }
+        return mVisiblePackages.size();
     }
 
     @Override
     public PackageItem getItem(int position) {
-        synchronized (mInstalledPackages) {
-            return mInstalledPackages.get(position);
-        }
+        return mVisiblePackages.get(position);
     }
 
     @Override
     public long getItemId(int position) {
-        synchronized (mInstalledPackages) {
-            // packageName is guaranteed to be unique in mInstalledPackages
-            return mInstalledPackages.get(position).packageName.hashCode();
-        }
+        // packageName is guaranteed to be unique in mInstalledPackages
+        return mVisiblePackages.get(position).packageName.hashCode();
     }
 
     @Override
@@ -134,6 +255,10 @@ public class PackageListAdapter extends BaseAdapter implements Runnable {
         PackageItem applicationInfo = getItem(position);
         holder.title.setText(applicationInfo.title);
         holder.icon.setImageDrawable(applicationInfo.icon);
+        if (applicationInfo.icon == null && mLoad != null) {
+            // On screen, load it ahead of the rest
+            mLoad.requestIcon(applicationInfo.packageName, AppLoadExecutor.PRIORITY_VISIBLE);
+        }
 
         boolean needSummary = applicationInfo.activityTitles.size() > 0;
         if (applicationInfo.activityTitles.size() == 1) {
@@ -153,46 +278,448 @@ public class PackageListAdapter extends BaseAdapter implements Runnable {
     }
 
     private void reloadList() {
-        mInstalledPackages.clear();
-        new Thread(this).start();
+        cancel();
+        // Batches of the previous load would hold off the schedules of the new one
+        mHandler.removeCallbacksAndMessages(null);
+        setItems(new ArrayList<>());
+        mLoad = new Load(++mGeneration);
+        mLoad.start();
     }
 
-    @Override
-    public void run() {
-        final Intent mainIntent = new Intent(Intent.ACTION_MAIN, null);
-        mainIntent.addCategory(Intent.CATEGORY_LAUNCHER);
-        List<ResolveInfo> installedAppsInfo = mPm.queryIntentActivities(mainIntent, 0);
+    /**
+     * Stops loading, e.g. when the chooser is dismissed. Call
+     * {@link #ensureLoaded()} before showing the list again.
+     */
+    public void cancel() {
+        if (mLoad != null && !mLoad.isFinished()) {
+            mLoad.cancel();
+            mLoad = null;
+            mHandler.removeCallbacksAndMessages(null);
+        }
+    }
+
+    /** Restarts loading if it was cancelled before it finished. */
+    public void ensureLoaded() {
+        if (mLoad == null) {
+            reloadList();
+        }
+    }
+
+    private void setItems(List<PackageItem> items) {
+        mInstalledPackages = items;
+        mVisiblePackages = filter(items);
+        mItemsByPackage.clear();
+        for (PackageItem item : items) {
+            mItemsByPackage.put(item.packageName, item);
+        }
+        notifyDataSetChanged();
+    }
+
+    /**
+     * Only shows the apps whose label or package name contains the query,
+     * ignoring case and accents. A null or empty query shows all of them.
+     */
+    public void setFilter(CharSequence query) {
+        final String filter = query == null ? ""
+                : PackageListUtils.normalizeForSearch(query.toString().trim());
+        if (filter.equals(mFilter)) return;
+        // Typing more can only drop matches, so only the current ones need a look
+        final boolean narrowing = !mFilter.isEmpty() && filter.startsWith(mFilter);
+        mFilter = filter;
+        mVisiblePackages = filter(narrowing ? mVisiblePackages : mInstalledPackages);
+        notifyDataSetChanged();
+    }
+
+    /** Filters the list by what is typed into the search box. */
+    public void bindSearch(EditText search) {
+        setFilter(search.getText());
+        search.addTextChangedListener(new TextWatcher() {
+            @Override
+            public void beforeTextChanged(CharSequence s, int start, int count, int after) {
+            }
 
-        for (ResolveInfo info : installedAppsInfo) {
-            ApplicationInfo appInfo = info.activityInfo.applicationInfo;
-            if (mExcludedPackages.contains(appInfo.packageName)) {
-                continue;
+            @Override
+            public void onTextChanged(CharSequence s, int start, int before, int count) {
+                setFilter(s);
             }
 
-            final PackageItem item = new PackageItem(appInfo.packageName,
-                    appInfo.loadLabel(mPm), appInfo.loadIcon(mPm));
-            item.activityTitles.add(info.loadLabel(mPm));
-            mHandler.obtainMessage(0, item).sendToTarget();
+            @Override
+            public void afterTextChanged(Editable s) {
+            }
+        });
+    }
+
+    /*
+     * A plain scan over the precomputed search keys. The list holds a few
+     * hundred launchable apps, so this takes well under a millisecond, and
+     * narrowing only rescans the current matches. Substring matching would
+     * need an n-gram index, far more memory than it would save here.
+     */
+    private List<PackageItem> filter(List<PackageItem> items) {
+        if (mFilter.isEmpty() && mExcludedPackages.isEmpty()) return items;
+        final List<PackageItem> matches = new ArrayList<>();
+        for (PackageItem item : items) {
+            if (!mExcludedPackages.contains(item.packageName)
+                    && item.searchKey.contains(mFilter)) {
+                matches.add(item);
+            }
         }
+        return matches;
+    }
 
-        for (String packageName : PACKAGE_WHITELIST) {
-            if (mExcludedPackages.contains(packageName)) {
-                continue;
+    /* merges a batch into the sorted list, one notify per batch */
+    private void publish(List<PackageItem> batch) {
+        if (batch.isEmpty()) return;
+        Collections.sort(batch);
+        final List<PackageItem> current = mInstalledPackages;
+        final List<PackageItem> merged = new ArrayList<>(current.size() + batch.size());
+        int i = 0, j = 0;
+        while (i < current.size() || j < batch.size()) {
+            final PackageItem next;
+            if (j == batch.size()
+                    || (i < current.size() && current.get(i).compareTo(batch.get(j)) <= 0)) {
+                next = current.get(i++);
+            } else {
+                next = batch.get(j++);
             }
+
+            final PackageItem last = merged.isEmpty() ? null : merged.get(merged.size() - 1);
+            if (last != null && last.compareTo(next) == 0) {
+                // Another launcher activity of the same app
+                last.activityTitles.addAll(next.activityTitles);
+            } else {
+                merged.add(next);
+            }
+        }
+        setItems(merged);
+    }
+
+    private void applyIcons(Map<String, Bitmap> icons) {
+        boolean changed = false;
+        for (Map.Entry<String, Bitmap> icon : icons.entrySet()) {
+            final PackageItem item = mItemsByPackage.get(icon.getKey());
+            if (item != null && item.icon == null) {
+                item.icon = new BitmapDrawable(mResources, icon.getValue());
+                changed = true;
+            }
+        }
+        if (changed) {
+            notifyDataSetChanged();
+        }
+    }
+
+    /* replaces the item of a single package, or drops it if item is null */
+    private void applyPatch(String packageName, PackageItem item) {
+        final List<PackageItem> items = new ArrayList<>(mInstalledPackages);
+        final PackageItem old = mItemsByPackage.get(packageName);
+        if (old != null) {
+            items.remove(old);
+        }
+        if (item != null) {
+            final int index = Collections.binarySearch(items, item);
+            items.add(index < 0 ? -index - 1 : index, item);
+        }
+        setItems(items);
+    }
+
+    private void updatePackage(String packageName) {
+        if (mLoad == null) {
+            // Not loaded, the next load picks it up
+            return;
+        }
+        if (!mLoad.isFinished()) {
+            // The scan may have missed it, start over. The index keeps that cheap.
+            reloadList();
+            return;
+        }
+        final int generation = mGeneration;
+        AppLoadExecutor.submit(AppLoadExecutor.PRIORITY_LABEL, () -> {
+            final PackageItem item = loadPackage(packageName);
+            mHandler.obtainMessage(MSG_PATCH, generation, 0,
+                    Pair.create(packageName, item)).sendToTarget();
+        });
+    }
+
+    /* reloads and indexes one package, returns null if it shouldn't be listed */
+    private PackageItem loadPackage(String packageName) {
+        final Intent mainIntent = IntentQueryCache.getLauncherIntent();
+        mainIntent.setPackage(packageName);
+        final List<ResolveInfo> activities = mPm.queryIntentActivities(mainIntent, 0);
+
+        PackageInfo packageInfo = null;
+        if (!activities.isEmpty() || Arrays.asList(PACKAGE_WHITELIST).contains(packageName)) {
             try {
-                ApplicationInfo appInfo = mPm.getApplicationInfo(packageName, 0);
-                final PackageItem item = new PackageItem(appInfo.packageName,
-                        appInfo.loadLabel(mPm), appInfo.loadIcon(mPm));
-                mHandler.obtainMessage(0, item).sendToTarget();
+                packageInfo = mPm.getPackageInfo(packageName, 0);
             } catch (PackageManager.NameNotFoundException ignored) {
-                // package not present, so nothing to add -> ignore it
+                // removed in the meantime
             }
         }
+        if (packageInfo == null) {
+            mIndex.remove(packageName);
+            mIndex.saveLater();
+            return null;
+        }
+
+        final ApplicationInfo appInfo = packageInfo.applicationInfo;
+        final AppIndex.Entry entry = newEntry(packageName, appInfo, packageInfo, activities,
+                mIconCache.getBitmap(appInfo));
+        mIndex.put(entry);
+        mIndex.saveLater();
+        return toItem(entry);
     }
 
+    private AppIndex.Entry newEntry(String packageName, ApplicationInfo appInfo,
+            PackageInfo packageInfo, List<ResolveInfo> activities, Bitmap icon) {
+        final List<String> titles = new ArrayList<>(activities.size());
+        for (ResolveInfo info : activities) {
+            titles.add(info.loadLabel(mPm).toString());
+        }
+        return new AppIndex.Entry(packageName, appInfo.longVersionCode,
+                packageInfo != null ? packageInfo.lastUpdateTime : 0,
+                appInfo.loadLabel(mPm).toString(), titles, icon);
+    }
+
+    private PackageItem toItem(AppIndex.Entry entry) {
+        final PackageItem item = new PackageItem(entry.packageName, entry.label,
+                entry.icon != null ? new BitmapDrawable(mResources, entry.icon) : null);
+        item.activityTitles.addAll(entry.activityTitles);
+        return item;
+    }
+
+    /** Hides the given packages, the loaded list itself is kept. */
     public void setExcludedPackages(HashSet<String> packages) {
+        if (mExcludedPackages.equals(packages)) return;
         mExcludedPackages = packages;
-        reloadList();
+        mVisiblePackages = filter(mInstalledPackages);
+        notifyDataSetChanged();
+    }
+
+    /**
+     * One load of the list on the {@link AppLoadExecutor}.
+     *
+     * What the index knew is shown first. Labels of new or updated apps are
+     * then loaded in parallel, which is enough to sort and show them, and
+     * their icons are filled in afterwards, the ones on screen first.
+     */
+    private final class Load {
+        private final int mGeneration;
+        private final List<Future<?>> mTasks = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean mCancelled;
+        private volatile boolean mFinished;
+
+        // Set up by the first task, before any other task is submitted
+        private boolean mProgressive;
+        private final Map<String, ApplicationInfo> mAppInfos = new ConcurrentHashMap<>();
+        private final Map<String, AppIndex.Entry> mEntries = new ConcurrentHashMap<>();
+        private final Set<String> mIconsRequested = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger mPendingLabels = new AtomicInteger();
+        private final AtomicInteger mPendingIcons = new AtomicInteger();
+        private volatile boolean mLabelsLoaded;
+        private boolean mChanged;
+
+        private final ConcurrentLinkedQueue<PackageItem> mLoadedItems =
+                new ConcurrentLinkedQueue<>();
+        private final Map<String, Bitmap> mLoadedIcons = new ConcurrentHashMap<>();
+
+        Load(int generation) {
+            mGeneration = generation;
+        }
+
+        void start() {
+            submit(AppLoadExecutor.PRIORITY_LABEL, this::scan);
+        }
+
+        boolean isFinished() {
+            return mFinished;
+        }
+
+        void cancel() {
+            mCancelled = true;
+            synchronized (mTasks) {
+                for (Future<?> task : mTasks) {
+                    AppLoadExecutor.cancel(task);
+                }
+                mTasks.clear();
+            }
+        }
+
+        private void submit(int priority, Runnable runnable) {
+            if (mCancelled) return;
+            mTasks.add(AppLoadExecutor.submit(priority, () -> {
+                if (!mCancelled) runnable.run();
+            }));
+        }
+
+        private void scan() {
+            // Show what the index knew last time right away, then bring it up to date
+            final Collection<AppIndex.Entry> cached = mIndex.getEntries();
+            mProgressive = cached.isEmpty();
+            if (!mProgressive) {
+                post(MSG_REPLACE, toItems(cached));
+            }
+
+            final Map<String, PackageInfo> installed = new HashMap<>();
+            for (PackageInfo info : mPm.getInstalledPackages(0)) {
+                installed.put(info.packageName, info);
+            }
+
+            final Map<String, List<ResolveInfo>> launchable = new LinkedHashMap<>();
+            for (ResolveInfo info : mQueryCache.queryIntentActivities(
+                    IntentQueryCache.getLauncherIntent(), 0)) {
+                launchable.computeIfAbsent(info.activityInfo.packageName,
+                        p -> new ArrayList<>()).add(info);
+            }
+            for (String packageName : PACKAGE_WHITELIST) {
+                if (launchable.containsKey(packageName)) continue;
+                try {
+                    mAppInfos.put(packageName, mPm.getApplicationInfo(packageName, 0));
+                    launchable.put(packageName, Collections.emptyList());
+                } catch (PackageManager.NameNotFoundException ignored) {
+                    // package not present, so nothing to add -> ignore it
+                }
+            }
+
+            final List<Runnable> labelTasks = new ArrayList<>();
+            for (Map.Entry<String, List<ResolveInfo>> app : launchable.entrySet()) {
+                final String packageName = app.getKey();
+                final List<ResolveInfo> activities = app.getValue();
+                if (!activities.isEmpty()) {
+                    mAppInfos.put(packageName, activities.get(0).activityInfo.applicationInfo);
+                }
+                final PackageInfo packageInfo = installed.get(packageName);
+                final AppIndex.Entry entry = mIndex.get(packageName);
+                if (entry != null && packageInfo != null && entry.isCurrent(packageInfo)) {
+                    mEntries.put(packageName, entry);
+                    if (mProgressive) addItem(entry);
+                } else {
+                    labelTasks.add(() -> loadLabel(packageName, packageInfo, activities));
+                }
+            }
+            mChanged = !labelTasks.isEmpty() || cached.size() != launchable.size();
+
+            if (labelTasks.isEmpty()) {
+                onLabelsLoaded();
+                return;
+            }
+            mPendingLabels.set(labelTasks.size());
+            for (Runnable task : labelTasks) {
+                submit(AppLoadExecutor.PRIORITY_LABEL, task);
+            }
+        }
+
+        private void loadLabel(String packageName, PackageInfo packageInfo,
+                List<ResolveInfo> activities) {
+            try {
+                final ApplicationInfo appInfo = mAppInfos.get(packageName);
+                // Keep an icon we already have, it gets replaced once reloaded
+                final Bitmap icon = mIconCache.peekIcon(appInfo) != null
+                        ? mIconCache.getBitmap(appInfo) : null;
+                final AppIndex.Entry entry = newEntry(packageName, appInfo, packageInfo,
+                        activities, icon);
+                mEntries.put(packageName, entry);
+                mIndex.put(entry);
+                if (mProgressive) addItem(entry);
+            } finally {
+                // A package that failed, e.g. removed mid-scan, must not hold up the rest
+                if (mPendingLabels.decrementAndGet() == 0) {
+                    onLabelsLoaded();
+                }
+            }
+        }
+
+        private void onLabelsLoaded() {
+            mIndex.retain(mEntries.keySet());
+            if (!mProgressive && mChanged) {
+                post(MSG_REPLACE, toItems(mEntries.values()));
+            }
+
+            // Held while queuing, an icon done early must not finish the load
+            mPendingIcons.incrementAndGet();
+            mLabelsLoaded = true;
+            for (AppIndex.Entry entry : mEntries.values()) {
+                if (entry.icon == null) {
+                    requestIcon(entry.packageName, AppLoadExecutor.PRIORITY_ICON);
+                }
+            }
+            if (mPendingIcons.decrementAndGet() == 0) {
+                finish();
+            }
+        }
+
+        void requestIcon(String packageName, int priority) {
+            if (mCancelled || !mAppInfos.containsKey(packageName)
+                    || !mIconsRequested.add(packageName)) {
+                return;
+            }
+            mPendingIcons.incrementAndGet();
+            submit(priority, () -> {
+                try {
+                    loadIcon(packageName);
+                } finally {
+                    if (mPendingIcons.decrementAndGet() == 0 && mLabelsLoaded) {
+                        finish();
+                    }
+                }
+            });
+        }
+
+        private void loadIcon(String packageName) {
+            final Bitmap icon = mIconCache.getBitmap(mAppInfos.get(packageName));
+            final AppIndex.Entry entry = mEntries.get(packageName);
+            if (entry != null) {
+                final AppIndex.Entry updated = new AppIndex.Entry(packageName, entry.versionCode,
+                        entry.lastUpdateTime, entry.label, entry.activityTitles, icon);
+                mEntries.put(packageName, updated);
+                mIndex.put(updated);
+            }
+            mLoadedIcons.put(packageName, icon);
+            if (!mHandler.hasMessages(MSG_ICONS, this)) {
+                mHandler.sendMessageDelayed(
+                        mHandler.obtainMessage(MSG_ICONS, mGeneration, 0, this), FRAME_MS);
+            }
+        }
+
+        private synchronized void finish() {
+            if (mFinished) return;
+            mFinished = true;
+            mIndex.save();
+        }
+
+        private void addItem(AppIndex.Entry entry) {
+            mLoadedItems.add(toItem(entry));
+            // Only a pending batch of this load counts, see reloadList()
+            if (!mHandler.hasMessages(MSG_ADD, this)) {
+                mHandler.sendMessageDelayed(
+                        mHandler.obtainMessage(MSG_ADD, mGeneration, 0, this), FRAME_MS);
+            }
+        }
+
+        List<PackageItem> drainItems() {
+            final List<PackageItem> items = new ArrayList<>();
+            PackageItem item;
+            while ((item = mLoadedItems.poll()) != null) {
+                items.add(item);
+            }
+            return items;
+        }
+
+        Map<String, Bitmap> drainIcons() {
+            final Map<String, Bitmap> icons = new HashMap<>(mLoadedIcons);
+            mLoadedIcons.keySet().removeAll(icons.keySet());
+            return icons;
+        }
+
+        private List<PackageItem> toItems(Collection<AppIndex.Entry> entries) {
+            final List<PackageItem> items = new ArrayList<>(entries.size());
+            for (AppIndex.Entry entry : entries) {
+                items.add(toItem(entry));
+            }
+            return items;
+        }
+
+        private void post(int what, List<PackageItem> items) {
+            mHandler.obtainMessage(what, mGeneration, 0, items).sendToTarget();
+        }
     }
 
     private static class ViewHolder {
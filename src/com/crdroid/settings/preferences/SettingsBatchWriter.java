@@ -0,0 +1,159 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import android.content.ContentResolver;
+import android.content.ContentValues;
+import android.database.Cursor;
+import android.os.SystemClock;
+import android.os.UserHandle;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Applies {@link SettingsValues} with as little provider traffic as possible.
+ *
+ * The current values of each table are read with a single query and only the
+ * keys that differ are written, with one bulk insert per table. Unchanged keys
+ * are never touched, so their observers don't fire.
+ */
+public final class SettingsBatchWriter {
+
+    private static final String TAG = "SettingsBatchWriter";
+
+    private static final String[] PROJECTION =
+            new String[] { SettingsTable.NAME, SettingsTable.VALUE };
+
+    public static final class Result {
+        public final int keys;
+        public final int changed;
+        public final long elapsedMs;
+
+        Result(int keys, int changed, long elapsedMs) {
+            this.keys = keys;
+            this.changed = changed;
+            this.elapsedMs = elapsedMs;
+        }
+
+        @Override
+        public String toString() {
+            return changed + "/" + keys + " keys changed in " + elapsedMs + "ms";
+        }
+    }
+
+    private SettingsBatchWriter() {
+    }
+
+    public static Result apply(ContentResolver resolver, SettingsValues values) {
+        final long start = SystemClock.elapsedRealtime();
+        int changed = 0;
+        for (SettingsTable table : values.getTables()) {
+            changed += apply(resolver, table, values.get(table));
+        }
+        final Result result = new Result(values.size(), changed,
+                SystemClock.elapsedRealtime() - start);
+        Log.i(TAG, "Applied settings: " + result);
+        return result;
+    }
+
+    private static int apply(ContentResolver resolver, SettingsTable table,
+            Map<String, String> target) {
+        final int userId = SettingsCache.getInstance().resolveUserId(UserHandle.USER_CURRENT);
+        final Map<String, String> current = read(resolver, table, target.keySet(), userId);
+
+        final List<String> changed = new ArrayList<>();
+        final List<ContentValues> writes = new ArrayList<>();
+        for (Map.Entry<String, String> entry : target.entrySet()) {
+            final String key = entry.getKey();
+            final String value = entry.getValue();
+            if (Objects.equals(current.get(key), value)) continue;
+
+            if (table.isMovedKey(key)) {
+                // Let the Settings setters redirect it to the right table
+                table.putStringForUser(resolver, key, value, userId);
+            } else {
+                final ContentValues cv = new ContentValues(2);
+                cv.put(SettingsTable.NAME, key);
+                cv.put(SettingsTable.VALUE, value);
+                writes.add(cv);
+            }
+            changed.add(key);
+        }
+
+        if (!writes.isEmpty()) {
+            write(resolver, table, writes, userId);
+        }
+        final SettingsCache cache = SettingsCache.getInstance();
+        for (String key : changed) {
+            cache.invalidate(table, key);
+        }
+        return changed.size();
+    }
+
+    static Map<String, String> read(ContentResolver resolver, SettingsTable table,
+            Set<String> keys, int userId) {
+        final Map<String, String> values = new HashMap<>();
+        boolean queried = false;
+        try (Cursor cursor = resolver.query(table.getContentUriForUser(userId),
+                PROJECTION, null, null, null)) {
+            if (cursor != null) {
+                final int nameColumn = cursor.getColumnIndexOrThrow(SettingsTable.NAME);
+                final int valueColumn = cursor.getColumnIndexOrThrow(SettingsTable.VALUE);
+                while (cursor.moveToNext()) {
+                    final String name = cursor.getString(nameColumn);
+                    if (keys.contains(name)) {
+                        values.put(name, cursor.getString(valueColumn));
+                    }
+                }
+                queried = true;
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Failed to query " + table + ", reading keys one by one", e);
+        }
+
+        for (String key : keys) {
+            if (!queried || table.isMovedKey(key)) {
+                values.put(key, table.getStringForUser(resolver, key, userId));
+            }
+        }
+        return values;
+    }
+
+    private static void write(ContentResolver resolver, SettingsTable table,
+            List<ContentValues> writes, int userId) {
+        try {
+            resolver.bulkInsert(table.getContentUriForUser(userId),
+                    writes.toArray(new ContentValues[writes.size()]));
+            return;
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Bulk insert into " + table + " failed, writing keys one by one", e);
+        }
+        for (ContentValues cv : writes) {
+            final String key = cv.getAsString(SettingsTable.NAME);
+            try {
+                table.putStringForUser(resolver, key, cv.getAsString(SettingsTable.VALUE), userId);
+            } catch (RuntimeException e) {
+                Log.w(TAG, "Failed to write " + key + " to " + table, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,412 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import android.app.ActivityManager;
+import android.app.ActivityThread;
+import android.app.Application;
+import android.content.BroadcastReceiver;
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.database.ContentObserver;
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.SystemClock;
+import android.os.UserHandle;
+import android.util.Log;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process wide read-through cache for the settings provider tables.
+ *
+ * Values are kept per table and per user as raw strings. One observer per
+ * table drops entries as soon as the provider reports a change, so cached
+ * reads never outlive the value they were read from. The observer is held by
+ * the {@link SettingsObservers} subscriptions, tables nobody subscribed to
+ * are read straight from the provider and not cached.
+ *
+ * {@link UserHandle#USER_CURRENT} is resolved here, once, and kept up to date
+ * from ACTION_USER_SWITCHED, partitions of other users are evicted on switch.
+ *
+ * Keys can also be loaded ahead of time with a single query per table, see
+ * {@link #prefetch}.
+ */
+public final class SettingsCache {
+
+    private static final String TAG = "SettingsCache";
+
+    private static final String[] PREFETCH_PROJECTION =
+            new String[] { SettingsTable.NAME, SettingsTable.VALUE };
+
+    // Marks keys that are known to be unset, ConcurrentHashMap can't hold null
+    private static final Object ABSENT = new Object();
+
+    private static final SettingsCache sInstance = new SettingsCache();
+
+    private final Map<SettingsTable, Map<Integer, Partition>> mPartitions =
+            new EnumMap<>(SettingsTable.class);
+    private final Map<SettingsTable, TableObserver> mObservers =
+            new EnumMap<>(SettingsTable.class);
+
+    private volatile int mCurrentUserId = UserHandle.USER_NULL;
+    private volatile boolean mTrackingUser;
+
+    private final AtomicLong mHits = new AtomicLong();
+    private final AtomicLong mMisses = new AtomicLong();
+    private final AtomicLong mPrefetchQueries = new AtomicLong();
+
+    private SettingsCache() {
+        for (SettingsTable table : SettingsTable.values()) {
+            mPartitions.put(table, new ConcurrentHashMap<>());
+            mObservers.put(table, new TableObserver(table));
+        }
+    }
+
+    public static SettingsCache getInstance() {
+        return sInstance;
+    }
+
+    public String getString(ContentResolver resolver, SettingsTable table, String key, int userId) {
+        return getString(resolver, table, key, userId, null);
+    }
+
+    public String getString(ContentResolver resolver, SettingsTable table, String key, int userId,
+            SettingsStats.KeyStats stats) {
+        userId = resolveUserId(userId);
+        if (!mObservers.get(table).isRegistered()) {
+            mMisses.incrementAndGet();
+            return readString(resolver, table, key, userId, stats);
+        }
+        if (table.isMovedKey(key)) {
+            // Backed by another table, whose changes this table's observer never sees
+            mMisses.incrementAndGet();
+            return readString(resolver, table, key, userId, stats);
+        }
+        final Partition partition = getPartition(table, userId);
+        final Object cached = partition.values.get(key);
+        if (cached != null) {
+            mHits.incrementAndGet();
+            if (stats != null) stats.recordHit();
+            return cached == ABSENT ? null : (String) cached;
+        }
+        mMisses.incrementAndGet();
+
+        final int generation = partition.generation.get();
+        final String value = readString(resolver, table, key, userId, stats);
+        partition.store(key, value, generation);
+        return value;
+    }
+
+    private static String readString(ContentResolver resolver, SettingsTable table, String key,
+            int userId, SettingsStats.KeyStats stats) {
+        final long start = SystemClock.elapsedRealtimeNanos();
+        final String value = table.getStringForUser(resolver, key, userId);
+        if (stats != null) stats.recordProviderRead(SystemClock.elapsedRealtimeNanos() - start);
+        return value;
+    }
+
+    public boolean putString(ContentResolver resolver, SettingsTable table, String key,
+            String value, int userId) {
+        return putString(resolver, table, key, value, userId, null);
+    }
+
+    public boolean putString(ContentResolver resolver, SettingsTable table, String key,
+            String value, int userId, SettingsStats.KeyStats stats) {
+        userId = resolveUserId(userId);
+        final Partition partition = getPartition(table, userId);
+        final int generation = partition.generation.incrementAndGet();
+        final long start = SystemClock.elapsedRealtimeNanos();
+        final boolean written = table.putStringForUser(resolver, key, value, userId);
+        if (stats != null) stats.recordWrite(SystemClock.elapsedRealtimeNanos() - start);
+        if (written && !table.isMovedKey(key) && mObservers.get(table).isRegistered()) {
+            partition.store(key, value, generation);
+        } else {
+            partition.values.remove(key);
+        }
+        return written;
+    }
+
+    /**
+     * Loads the given keys of the table with a single provider query, on the
+     * calling thread so that the reads which follow are all hits. Keys that
+     * are cached already are left out, when there are none left there is no
+     * query at all, and neither when the table isn't observed.
+     */
+    public void prefetch(ContentResolver resolver, SettingsTable table, Set<String> keys,
+            int userId, String scope) {
+        if (!mObservers.get(table).isRegistered()) return;
+
+        final int user = resolveUserId(userId);
+        final Partition partition = getPartition(table, user);
+        final Set<String> missing = new HashSet<>();
+        for (String key : keys) {
+            // The getters look moved keys up elsewhere, leave those to a regular read
+            if (!table.isMovedKey(key) && !partition.values.containsKey(key)) {
+                missing.add(key);
+            }
+        }
+        if (missing.isEmpty()) return;
+
+        final long start = SystemClock.elapsedRealtimeNanos();
+        prefetch(resolver, table, partition, missing, user);
+        SettingsStats.getInstance().get(scope, table, SettingsStats.PREFETCH_KEY)
+                .recordProviderRead(SystemClock.elapsedRealtimeNanos() - start);
+    }
+
+    private void prefetch(ContentResolver resolver, SettingsTable table, Partition partition,
+            Set<String> keys, int userId) {
+        final int generation = partition.generation.get();
+        final Map<String, String> values = new HashMap<>();
+        mPrefetchQueries.incrementAndGet();
+        try (Cursor cursor = query(resolver, table, keys, userId)) {
+            if (cursor == null) return;
+            final int nameColumn = cursor.getColumnIndexOrThrow(SettingsTable.NAME);
+            final int valueColumn = cursor.getColumnIndexOrThrow(SettingsTable.VALUE);
+            while (cursor.moveToNext()) {
+                final String name = cursor.getString(nameColumn);
+                if (keys.contains(name)) {
+                    values.put(name, cursor.getString(valueColumn));
+                }
+            }
+        } catch (RuntimeException e) {
+            Log.w(TAG, "Failed to prefetch " + table, e);
+            return;
+        }
+
+        for (String key : keys) {
+            // Keys missing from the query are unset
+            partition.store(key, values.get(key), generation);
+        }
+    }
+
+    /*
+     * Asks for the keys only. SettingsProvider refuses any selection but
+     * "name=?" and answers with the whole table instead, which is still a
+     * single round-trip.
+     */
+    private static Cursor query(ContentResolver resolver, SettingsTable table, Set<String> keys,
+            int userId) {
+        final Uri uri = table.getContentUriForUser(userId);
+        final StringBuilder selection = new StringBuilder(SettingsTable.NAME).append(" IN (");
+        for (int i = 0; i < keys.size(); i++) {
+            selection.append(i == 0 ? "?" : ",?");
+        }
+        selection.append(')');
+        try {
+            return resolver.query(uri, PREFETCH_PROJECTION, selection.toString(),
+                    keys.toArray(new String[keys.size()]), null);
+        } catch (IllegalArgumentException e) {
+            return resolver.query(uri, PREFETCH_PROJECTION, null, null, null);
+        }
+    }
+
+    public void invalidate(SettingsTable table, String key) {
+        for (Partition partition : mPartitions.get(table).values()) {
+            partition.invalidate(key);
+        }
+    }
+
+    private void invalidate(SettingsTable table, String key, int userId) {
+        if (userId == UserHandle.USER_ALL || table == SettingsTable.GLOBAL) {
+            invalidate(table, key);
+            return;
+        }
+        final Partition partition = mPartitions.get(table).get(userId);
+        if (partition != null) {
+            partition.invalidate(key);
+        }
+    }
+
+    /**
+     * Maps USER_CURRENT to the foreground user. The first call asks the
+     * activity manager, later ones use the value tracked from user switches.
+     */
+    public int resolveUserId(int userId) {
+        if (userId != UserHandle.USER_CURRENT) {
+            return userId;
+        }
+        int current = mCurrentUserId;
+        if (current == UserHandle.USER_NULL) {
+            current = ActivityManager.getCurrentUser();
+            // Only remember it when we will hear about the next switch
+            if (trackCurrentUser()) {
+                mCurrentUserId = current;
+            }
+        }
+        return current;
+    }
+
+    private boolean trackCurrentUser() {
+        if (mTrackingUser) return true;
+        synchronized (this) {
+            if (mTrackingUser) return true;
+            final Application app = ActivityThread.currentApplication();
+            if (app == null) return false;
+            app.registerReceiver(new BroadcastReceiver() {
+                @Override
+                public void onReceive(Context context, Intent intent) {
+                    onUserSwitched(intent.getIntExtra(Intent.EXTRA_USER_HANDLE,
+                            UserHandle.USER_NULL));
+                }
+            }, new IntentFilter(Intent.ACTION_USER_SWITCHED), Context.RECEIVER_NOT_EXPORTED);
+            mTrackingUser = true;
+            return true;
+        }
+    }
+
+    private void onUserSwitched(int userId) {
+        mCurrentUserId = userId;
+        for (SettingsTable table : SettingsTable.values()) {
+            if (table == SettingsTable.GLOBAL) continue;
+            for (Map.Entry<Integer, Partition> entry : mPartitions.get(table).entrySet()) {
+                if (entry.getKey() != userId) {
+                    entry.getValue().invalidate(null);
+                    mPartitions.get(table).remove(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        Log.i(TAG, "Switched to user " + userId + ", evicted other users");
+    }
+
+    void retainObserver(ContentResolver resolver, SettingsTable table) {
+        mObservers.get(table).retain(resolver);
+    }
+
+    void releaseObserver(SettingsTable table) {
+        mObservers.get(table).release();
+    }
+
+    public void invalidateAll() {
+        for (SettingsTable table : SettingsTable.values()) {
+            invalidate(table, null);
+        }
+    }
+
+    public long getHitCount() {
+        return mHits.get();
+    }
+
+    public long getMissCount() {
+        return mMisses.get();
+    }
+
+    public long getPrefetchQueryCount() {
+        return mPrefetchQueries.get();
+    }
+
+    @Override
+    public String toString() {
+        final long hits = mHits.get();
+        final long misses = mMisses.get();
+        final long total = hits + misses;
+        return "SettingsCache{hits=" + hits + ", misses=" + misses
+                + ", hitRate=" + (total == 0 ? 0 : (hits * 100 / total)) + "%"
+                + ", prefetchQueries=" + mPrefetchQueries.get() + "}";
+    }
+
+    private Partition getPartition(SettingsTable table, int userId) {
+        // Global settings are shared by all users
+        if (table == SettingsTable.GLOBAL) {
+            userId = UserHandle.USER_SYSTEM;
+        }
+        return mPartitions.get(table).computeIfAbsent(userId, id -> new Partition());
+    }
+
+    private static final class Partition {
+        final Map<String, Object> values = new ConcurrentHashMap<>();
+        // Bumped on every invalidation so late reads don't resurrect stale values
+        final AtomicInteger generation = new AtomicInteger();
+
+        void invalidate(String key) {
+            generation.incrementAndGet();
+            if (key == null) {
+                values.clear();
+            } else {
+                values.remove(key);
+            }
+        }
+
+        void store(String key, String value, int generation) {
+            final Object entry = value == null ? ABSENT : value;
+            values.put(key, entry);
+            if (this.generation.get() != generation) {
+                values.remove(key, entry);
+            }
+        }
+    }
+
+    private final class TableObserver extends ContentObserver {
+        private final SettingsTable mTable;
+        private ContentResolver mResolver;
+        private int mRefCount;
+        private volatile boolean mRegistered;
+
+        TableObserver(SettingsTable table) {
+            super(null);
+            mTable = table;
+        }
+
+        boolean isRegistered() {
+            return mRegistered;
+        }
+
+        synchronized void retain(ContentResolver resolver) {
+            if (mRefCount++ > 0) return;
+            // Drop anything a read stored while the table wasn't observed
+            invalidate(mTable, null);
+            mResolver = resolver;
+            resolver.registerContentObserver(mTable.getContentUri(), true, this,
+                    UserHandle.USER_ALL);
+            mRegistered = true;
+        }
+
+        synchronized void release() {
+            if (mRefCount == 0 || --mRefCount > 0) return;
+            mRegistered = false;
+            mResolver.unregisterContentObserver(this);
+            mResolver = null;
+            // Nothing tells us about changes anymore
+            invalidate(mTable, null);
+        }
+
+        @Override
+        public void onChange(boolean selfChange, Collection<Uri> uris, int flags,
+                UserHandle user) {
+            final int userId = user == null ? UserHandle.USER_ALL : user.getIdentifier();
+            for (Uri uri : uris) {
+                final String key = uri == null || uri.equals(mTable.getContentUri())
+                        ? null : uri.getLastPathSegment();
+                invalidate(mTable, key, userId);
+                // Listeners only care about what the current user sees
+                if (userId == UserHandle.USER_ALL || mTable == SettingsTable.GLOBAL
+                        || userId == mCurrentUserId) {
+                    SettingsObservers.getInstance().dispatch(mTable, key);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// Generated by tools/gen_settings_key_registry.py from res/xml, do not edit.
+
+package com.crdroid.settings.preferences;
+
+import com.android.settings.R;
+
+final class SettingsKeyRegistry {
+
+    private SettingsKeyRegistry() {
+    }
+
+    static final int TYPE_BOOLEAN = 0;
+    static final int TYPE_INT = 1;
+    static final int TYPE_STRING = 2;
+
+    /** Setting names, indexed like the arrays below. */
+    static final String[] KEYS = {
+            "adaptive_playback_timeout", "doze_always_on_auto_mode",
+            "statusbar_battery_bar_thickness", "statusbar_battery_bar_style",
+            "statusbar_battery_bar_blend_color", "statusbar_battery_bar_blend_color_reverse",
+            "statusbar_battery_bar_color", "statusbar_battery_bar_battery_low_color",
+            "statusbar_battery_bar_animate", "statusbar_battery_bar_enable_charging_color",
+            "statusbar_battery_bar_charging_color", "hardware_keys_disable",
+            "swap_capacitive_keys", "anbi_enabled", "torch_long_press_power_timeout",
+            "lockscreen_show_carrier", "lockscreen_battery_info", "lockscreen_smartspace_enabled",
+            "lockscreen_weather_enabled", "lockscreen_weather_location", "lockscreen_weather_text",
+            "lockscreen_weather_wind_info", "lockscreen_weather_humidity_info",
+            "double_tap_sleep_lockscreen", "fp_success_vibrate", "fp_error_vibrate",
+            "enable_ripple_effect", "lockscreen_enable_power_menu", "pi_enable_spoof",
+            "pi_gms_cert_chain", "pi_games_spoof", "pi_photos_spoof", "pi_netflix_spoof",
+            "pm_downgrade_allowed", "pocket_judge", "enable_rotation_button",
+            "alert_slider_notifications", "notification_sound_vib_screen_on",
+            "notification_row_transparency", "notification_row_transparency_lockscreen",
+            "media_squiggle_animation", "notification_guts_kill_app_button",
+            "show_clipboard_overlay", "heads_up_notifications_enabled", "less_boring_heads_up",
+            "heads_up_timeout", "flashlight_on_call", "flashlight_on_call_ignore_dnd",
+            "flashlight_on_call_rate", "qs_battery_style", "qs_show_battery_percent",
+            "enable_lockscreen_quick_settings", "qs_bt_show_dialog", "qs_brightness_slider_shape",
+            "qs_brightness_slider_haptic", "qs_tile_shape", "qs_tile_haptic", "qs_show_data_usage",
+            "screenshot_shutter_sound", "volume_dialog_dismiss_timeout",
+            "volume_dialog_haptic_feedback", "vibrate_on_connect", "vibrate_on_callwaiting",
+            "vibrate_on_disconnect", "bluetooth_show_battery", "wifi_standard_icon",
+            "enable_camera_privacy_indicator", "enable_location_privacy_indicator",
+            "enable_projection_privacy_indicator", "statusbar_colored_icons",
+            "statusbar_notif_count", "status_bar_logo", "status_bar_logo_position",
+            "status_bar_logo_style", "status_bar_battery_style", "status_bar_show_battery_percent",
+            "status_bar_battery_text_charging", "status_bar_brightness_control",
+            "statusbar_extra_padding_start", "statusbar_extra_padding_top",
+            "statusbar_extra_padding_end", "doze_always_on_wallpaper_enabled",
+            "pulse_on_new_tracks", "charging_animation", "screen_off_animation", "doze_enabled",
+            "doze_always_on", "doze_on_charge", "doze_tilt_gesture", "doze_pick_up_gesture",
+            "doze_handwave_gesture", "doze_pocket_gesture", "raise_to_wake_gesture",
+            "doze_gesture_vibrate", "edge_light_pulse_count", "edge_light_stroke_width",
+            "edge_light_color_mode", "edge_light_style", "edge_light_animation_effect",
+            "edge_light_custom_color", "ambient_media_art_enabled", "ls_media_art_filter",
+            "ls_media_art_fade_level", "ls_media_art_blur_level", "network_traffic_mode",
+            "network_traffic_autohide", "network_traffic_autohide_threshold",
+            "network_traffic_refresh_interval", "network_traffic_units",
+            "network_traffic_hidearrow", "ambient_pulse_enabled", "pulse_renderer",
+            "pulse_rounded_bars", "pulse_color", "pulse_bar_count",
+            "status_bar_custom_header_height", "status_bar_custom_header_shadow",
+            "qs_tiles_columns", "qs_tiles_columns_landscape", "qs_tiles_rows",
+            "qs_tiles_rows_landscape", "qqs_tiles_rows", "smart_pixels_enable",
+            "smart_pixels_pattern", "smart_pixels_on_power_save", "smart_pixels_shift_timeout",
+            "status_bar_clock_auto_hide", "status_bar_clock_auto_hide_hduration",
+            "status_bar_clock_auto_hide_sduration", "status_bar_clock_seconds",
+            "statusbar_clock_chip", "status_bar_clock_date_display",
+            "status_bar_clock_date_position", "status_bar_clock_date_style",
+            "nothing_three_finger_screenshot", "nothing_three_finger_long_press",
+            "nt_disable_combination_screenshot",
+    };
+
+    /** {@link SettingsTable} ordinals. */
+    static final byte[] TABLES = {
+            0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 3, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1,
+            1, 1, 1, 1, 2, 0, 0, 0, 0, 1, 1, 1, 0, 1, 2, 0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0,
+            0, 1, 1, 0, 0, 0, 0, 0, 1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 0, 0, 1, 1,
+            1, 1, 1, 1, 1, 1, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1, 1, 1, 0,
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 1, 1,
+    };
+
+    static final byte[] TYPES = {
+            1, 2, 1, 2, 0, 0, 1, 1, 0, 0, 1, 0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0,
+            0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 1, 2, 0, 1, 2, 2, 0, 0, 2, 0, 2, 0, 0,
+            0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, 2, 2, 2, 2, 0, 0, 1, 1, 1, 0, 0, 0, 2, 0, 0,
+            0, 0, 0, 0, 0, 0, 1, 1, 1, 2, 2, 2, 1, 0, 2, 1, 1, 2, 0, 1, 1, 2, 0, 0, 2, 0, 2, 1, 1,
+            1, 1, 1, 1, 1, 1, 0, 2, 0, 2, 0, 1, 1, 0, 0, 2, 2, 2, 2, 0, 0,
+    };
+
+    /** The android:defaultValue of the preference, null if unset or a resource. */
+    static final String[] DEFAULTS = {
+            "30", null, "2", "0", "true", "false", "0xff76c124", "0xfff90028", "true", "true",
+            "0xffffc90f", null, null, "false", "0", "true", "true", "true", null, null, "true",
+            "false", "false", "true", "true", "true", "true", "true", "true", null, null, "true",
+            "false", "false", "false", "true", "true", "true", "true", "true", "true", null,
+            "true", "true", "false", "5", "0", "false", "1", "-1", "2", "true", "true", "0", null,
+            "0", null, null, "true", "3000", "false", "false", "false", "false", "true", "false",
+            "true", "true", "true", "false", "false", null, "0", "0", "0", "0", "true", "false",
+            "0", "0", "0", null, null, "true", "0", null, null, null, "false", "false", "false",
+            "false", "false", "0", "3", "8", "accent", "default", "none", "#FFFFFF", "true", "0",
+            "40", "200", "0", "true", "0", "2", "1", "false", "true", "solid", "false", "lavalamp",
+            "32", "142", "0", "4", "4", "4", "2", "2", null, "5", null, "4", "false", "60", "5",
+            "false", "false", "0", "0", "0", "0", "false", "false",
+    };
+
+    static final int[] SCREENS = {
+            R.xml.adaptive_playback_settings, R.xml.always_on_display_schedule, R.xml.battery_bar,
+            R.xml.crdroid_settings_button, R.xml.crdroid_settings_lockscreen,
+            R.xml.crdroid_settings_misc, R.xml.crdroid_settings_notifications,
+            R.xml.crdroid_settings_quicksettings, R.xml.crdroid_settings_sound,
+            R.xml.crdroid_settings_statusbar, R.xml.crdroid_settings_ui, R.xml.doze_settings,
+            R.xml.edge_light_settings, R.xml.media_art_settings, R.xml.network_traffic_settings,
+            R.xml.pulse_settings, R.xml.qs_header_image_settings, R.xml.qs_layout_settings,
+            R.xml.smart_pixels, R.xml.status_bar_clock, R.xml.three_finger_swipe,
+    };
+
+    /** Indexes of the keys declared by each of {@link #SCREENS}. */
+    static final int[][] SCREEN_KEYS = {
+            // adaptive_playback_settings
+            {
+                0,
+            },
+            // always_on_display_schedule
+            {
+                1,
+            },
+            // battery_bar
+            {
+                2, 3, 4, 5, 6, 7, 8, 9, 10,
+            },
+            // crdroid_settings_button
+            {
+                11, 12, 13, 14,
+            },
+            // crdroid_settings_lockscreen
+            {
+                15, 16, 17, 18, 19, 20, 21, 22, 23, 24, 25, 26, 27,
+            },
+            // crdroid_settings_misc
+            {
+                28, 29, 30, 31, 32, 33, 34, 35,
+            },
+            // crdroid_settings_notifications
+            {
+                36, 37, 38, 39, 40, 41, 42, 43, 44, 45, 46, 47, 48,
+            },
+            // crdroid_settings_quicksettings
+            {
+                49, 50, 51, 52, 53, 54, 55, 56, 57,
+            },
+            // crdroid_settings_sound
+            {
+                58, 59, 60, 61, 62, 63,
+            },
+            // crdroid_settings_statusbar
+            {
+                64, 65, 66, 67, 68, 69, 70, 71, 72, 73, 74, 75, 76, 77, 78, 79, 80,
+            },
+            // crdroid_settings_ui
+            {
+                81, 82, 83, 84,
+            },
+            // doze_settings
+            {
+                85, 86, 87, 88, 89, 90, 91, 92, 93,
+            },
+            // edge_light_settings
+            {
+                94, 95, 96, 97, 98, 99,
+            },
+            // media_art_settings
+            {
+                100, 101, 102, 103,
+            },
+            // network_traffic_settings
+            {
+                104, 105, 106, 107, 108, 109,
+            },
+            // pulse_settings
+            {
+                110, 111, 112, 113, 114,
+            },
+            // qs_header_image_settings
+            {
+                115, 116,
+            },
+            // qs_layout_settings
+            {
+                117, 118, 119, 120, 121,
+            },
+            // smart_pixels
+            {
+                122, 123, 124, 125,
+            },
+            // status_bar_clock
+            {
+                126, 127, 128, 129, 130, 131, 132, 133,
+            },
+            // three_finger_swipe
+            {
+                134, 135, 136,
+            },
+    };
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import android.util.SparseArray;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Lookups into the settings keys declared by our preference screens.
+ *
+ * The data comes from {@link SettingsKeyRegistry}, which is generated from
+ * res/xml by tools/gen_settings_key_registry.py, so nothing here parses XML.
+ */
+public final class SettingsKeys {
+
+    public static final int TYPE_UNKNOWN = -1;
+    public static final int TYPE_BOOLEAN = SettingsKeyRegistry.TYPE_BOOLEAN;
+    public static final int TYPE_INT = SettingsKeyRegistry.TYPE_INT;
+    public static final int TYPE_STRING = SettingsKeyRegistry.TYPE_STRING;
+
+    private static final SettingsTable[] TABLES = SettingsTable.values();
+
+    private static final Map<SettingsTable, Map<String, Integer>> sIndex =
+            new EnumMap<>(SettingsTable.class);
+    private static final SparseArray<Map<SettingsTable, Set<String>>> sScreens =
+            new SparseArray<>();
+
+    static {
+        for (SettingsTable table : TABLES) {
+            sIndex.put(table, new HashMap<>());
+        }
+        for (int i = 0; i < SettingsKeyRegistry.KEYS.length; i++) {
+            sIndex.get(TABLES[SettingsKeyRegistry.TABLES[i]])
+                    .put(SettingsKeyRegistry.KEYS[i], i);
+        }
+        for (int i = 0; i < SettingsKeyRegistry.SCREENS.length; i++) {
+            final Map<SettingsTable, Set<String>> keys = new EnumMap<>(SettingsTable.class);
+            for (int index : SettingsKeyRegistry.SCREEN_KEYS[i]) {
+                keys.computeIfAbsent(TABLES[SettingsKeyRegistry.TABLES[index]],
+                        t -> new HashSet<>()).add(SettingsKeyRegistry.KEYS[index]);
+            }
+            sScreens.put(SettingsKeyRegistry.SCREENS[i], Collections.unmodifiableMap(keys));
+        }
+    }
+
+    private SettingsKeys() {
+    }
+
+    public static boolean contains(SettingsTable table, String key) {
+        return sIndex.get(table).containsKey(key);
+    }
+
+    /** Returns every store backed key of the table declared by our screens. */
+    public static Set<String> getKeys(SettingsTable table) {
+        return Collections.unmodifiableSet(sIndex.get(table).keySet());
+    }
+
+    public static int getType(SettingsTable table, String key) {
+        final Integer index = sIndex.get(table).get(key);
+        return index == null ? TYPE_UNKNOWN : SettingsKeyRegistry.TYPES[index];
+    }
+
+    /**
+     * Returns the android:defaultValue declared in XML, null when there is
+     * none or it is a resource reference.
+     */
+    public static String getDefault(SettingsTable table, String key) {
+        final Integer index = sIndex.get(table).get(key);
+        return index == null ? null : SettingsKeyRegistry.DEFAULTS[index];
+    }
+
+    /**
+     * Returns the store backed keys of a preference screen by table, or null
+     * if the screen isn't in the registry.
+     */
+    public static Map<SettingsTable, Set<String>> getScreenKeys(int xmlResId) {
+        return sScreens.get(xmlResId);
+    }
+}
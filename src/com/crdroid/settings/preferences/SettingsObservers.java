@@ -0,0 +1,223 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.os.Handler;
+import android.os.Looper;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+import androidx.lifecycle.DefaultLifecycleObserver;
+import androidx.lifecycle.LifecycleOwner;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Process wide registry for settings change listeners.
+ *
+ * Changes are picked up by the single per table observer of the
+ * {@link SettingsCache} and dispatched by key on the main thread. Listeners
+ * are only weakly referenced, callers have to keep them alive, and are
+ * dropped on their own once the lifecycle they were subscribed with ends.
+ *
+ * A table is only observed while something is subscribed to it, the last
+ * unsubscribe unregisters its observer.
+ */
+public final class SettingsObservers {
+
+    public interface Listener {
+        void onSettingChanged(SettingsTable table, String key);
+    }
+
+    private static final SettingsObservers sInstance = new SettingsObservers();
+
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Map<SettingsTable, Map<String, List<WeakReference<Listener>>>> mListeners =
+            new EnumMap<>(SettingsTable.class);
+    // Every subscription holds a reference on its table's observer
+    private final Map<Listener, List<Subscription>> mSubscriptions = new WeakHashMap<>();
+    private final Map<LifecycleOwner, OwnerScope> mScopes = new WeakHashMap<>();
+
+    private SettingsObservers() {
+        for (SettingsTable table : SettingsTable.values()) {
+            mListeners.put(table, new ConcurrentHashMap<>());
+        }
+    }
+
+    public static SettingsObservers getInstance() {
+        return sInstance;
+    }
+
+    public void subscribe(@Nullable LifecycleOwner owner, ContentResolver resolver,
+            SettingsTable table, String key, Listener listener) {
+        if (key == null) return;
+        final Subscription subscription;
+        synchronized (this) {
+            subscription = new Subscription(table, listener,
+                    owner != null ? getScope(owner) : null);
+            SettingsCache.getInstance().retainObserver(resolver, table);
+            mSubscriptions.computeIfAbsent(listener, l -> new ArrayList<>()).add(subscription);
+            if (subscription.scope != null) {
+                subscription.scope.subscriptions.add(subscription);
+            }
+        }
+        mListeners.get(table).computeIfAbsent(key, k -> new CopyOnWriteArrayList<>())
+                .add(subscription.listener);
+    }
+
+    public void unsubscribe(Listener listener) {
+        for (Map<String, List<WeakReference<Listener>>> keys : mListeners.values()) {
+            for (List<WeakReference<Listener>> listeners : keys.values()) {
+                listeners.removeIf(ref -> {
+                    final Listener l = ref.get();
+                    return l == null || l == listener;
+                });
+            }
+        }
+        synchronized (this) {
+            final List<Subscription> subscriptions = mSubscriptions.remove(listener);
+            if (subscriptions == null) return;
+            for (Subscription subscription : subscriptions) {
+                release(subscription);
+            }
+        }
+    }
+
+    /**
+     * Keeps the table observed, and so cached, until the owner is destroyed.
+     * For reads that happen before any preference of the screen subscribes.
+     */
+    public synchronized void retain(LifecycleOwner owner, ContentResolver resolver,
+            SettingsTable table) {
+        final OwnerScope scope = getScope(owner);
+        if (scope.tables.add(table)) {
+            SettingsCache.getInstance().retainObserver(resolver, table);
+        }
+    }
+
+    private OwnerScope getScope(LifecycleOwner owner) {
+        OwnerScope scope = mScopes.get(owner);
+        if (scope == null) {
+            scope = new OwnerScope();
+            mScopes.put(owner, scope);
+            owner.getLifecycle().addObserver(scope);
+        }
+        return scope;
+    }
+
+    private void release(Subscription subscription) {
+        if (subscription.released) return;
+        subscription.released = true;
+        if (subscription.scope != null) {
+            subscription.scope.subscriptions.remove(subscription);
+        }
+        SettingsCache.getInstance().releaseObserver(subscription.table);
+    }
+
+    /**
+     * Called from the provider observers, a null key means the whole table.
+     */
+    void dispatch(SettingsTable table, String key) {
+        final Map<String, List<WeakReference<Listener>>> keys = mListeners.get(table);
+        if (keys.isEmpty()) return;
+        mHandler.post(() -> {
+            if (key != null) {
+                deliver(table, key, keys.get(key));
+                return;
+            }
+            for (Map.Entry<String, List<WeakReference<Listener>>> entry : keys.entrySet()) {
+                deliver(table, entry.getKey(), entry.getValue());
+            }
+        });
+    }
+
+    private static void deliver(SettingsTable table, String key,
+            List<WeakReference<Listener>> listeners) {
+        if (listeners == null) return;
+        for (WeakReference<Listener> ref : listeners) {
+            final Listener listener = ref.get();
+            if (listener == null) {
+                listeners.remove(ref);
+            } else {
+                listener.onSettingChanged(table, key);
+            }
+        }
+    }
+
+    private static final class Subscription {
+        final SettingsTable table;
+        final WeakReference<Listener> listener;
+        final OwnerScope scope;
+        boolean released;
+
+        Subscription(SettingsTable table, Listener listener, OwnerScope scope) {
+            this.table = table;
+            this.listener = new WeakReference<>(listener);
+            this.scope = scope;
+        }
+    }
+
+    /*
+     * Single lifecycle observer per owner, releases whatever was subscribed
+     * or retained with it that is still held when it is destroyed.
+     */
+    private final class OwnerScope implements DefaultLifecycleObserver {
+        final List<Subscription> subscriptions = new ArrayList<>();
+        final Set<SettingsTable> tables = EnumSet.noneOf(SettingsTable.class);
+
+        @Override
+        public void onDestroy(@NonNull LifecycleOwner owner) {
+            owner.getLifecycle().removeObserver(this);
+            synchronized (SettingsObservers.this) {
+                mScopes.remove(owner);
+                for (Subscription subscription : new ArrayList<>(subscriptions)) {
+                    final Listener listener = subscription.listener.get();
+                    if (listener != null) {
+                        unsubscribe(listener);
+                    } else {
+                        release(subscription);
+                    }
+                }
+                for (SettingsTable table : tables) {
+                    SettingsCache.getInstance().releaseObserver(table);
+                }
+            }
+        }
+    }
+
+    @Nullable
+    public static LifecycleOwner findLifecycleOwner(Context context) {
+        while (context instanceof ContextWrapper) {
+            if (context instanceof LifecycleOwner) {
+                return (LifecycleOwner) context;
+            }
+            context = ((ContextWrapper) context).getBaseContext();
+        }
+        return null;
+    }
+}
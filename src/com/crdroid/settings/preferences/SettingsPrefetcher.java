@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.XmlResourceParser;
+import android.os.UserHandle;
+import android.text.TextUtils;
+import android.util.Log;
+
+import androidx.lifecycle.LifecycleOwner;
+import androidx.preference.PreferenceManager;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Loads the settings keys declared by a preference screen before it is inflated.
+ *
+ * Preferences read their value while being attached during inflation, so the
+ * keys are taken from the generated {@link SettingsKeys} registry, or from the
+ * XML resource itself for screens it doesn't know. Each table is then fetched
+ * with one query, and the reads done by the inflating preferences are
+ * answered from the {@link SettingsCache}. The tables stay observed, and so
+ * cached, for as long as the screen's activity lives.
+ */
+public final class SettingsPrefetcher {
+
+    private static final String TAG = "SettingsPrefetcher";
+
+    private static final String ANDROID_NS = "http://schemas.android.com/apk/res/android";
+
+    private static final Map<String, SettingsTable> sPreferenceTables = new HashMap<>();
+
+    static {
+        final String pkg = "com.crdroid.settings.preferences";
+        sPreferenceTables.put(pkg + ".SystemSettingSwitchPreference", SettingsTable.SYSTEM);
+        sPreferenceTables.put(pkg + ".SystemSettingListPreference", SettingsTable.SYSTEM);
+        sPreferenceTables.put(pkg + ".SystemSettingSeekBarPreference", SettingsTable.SYSTEM);
+        sPreferenceTables.put(pkg + ".colorpicker.SystemSettingColorPickerPreference",
+                SettingsTable.SYSTEM);
+        sPreferenceTables.put(pkg + ".SecureSettingSwitchPreference", SettingsTable.SECURE);
+        sPreferenceTables.put(pkg + ".SecureSettingListPreference", SettingsTable.SECURE);
+        sPreferenceTables.put(pkg + ".SecureSettingSeekBarPreference", SettingsTable.SECURE);
+        sPreferenceTables.put(pkg + ".colorpicker.SecureSettingColorPickerPreference",
+                SettingsTable.SECURE);
+        sPreferenceTables.put(pkg + ".GlobalSettingSwitchPreference", SettingsTable.GLOBAL);
+        sPreferenceTables.put(pkg + ".GlobalSettingListPreference", SettingsTable.GLOBAL);
+        sPreferenceTables.put(pkg + ".GlobalSettingSeekBarPreference", SettingsTable.GLOBAL);
+        sPreferenceTables.put(pkg + ".LineageSystemSettingSeekBarPreference",
+                SettingsTable.LINEAGE_SYSTEM);
+        sPreferenceTables.put(pkg + ".LineageSecureSettingSeekBarPreference",
+                SettingsTable.LINEAGE_SECURE);
+    }
+
+    private SettingsPrefetcher() {
+    }
+
+    /**
+     * Loads every store backed key of the preference screen, one query per
+     * table. To be called right before inflating it into the manager.
+     */
+    public static void prefetch(PreferenceManager manager, int xmlResId) {
+        final Context context = manager.getContext();
+        Map<SettingsTable, Set<String>> keys = SettingsKeys.getScreenKeys(xmlResId);
+        if (keys == null) {
+            keys = collectKeys(context.getResources(), xmlResId);
+        }
+        // The values are only cached while the table is observed
+        final LifecycleOwner owner = SettingsObservers.findLifecycleOwner(context);
+        if (owner == null) return;
+
+        final ContentResolver resolver = context.getApplicationContext().getContentResolver();
+        final SettingsCache cache = SettingsCache.getInstance();
+        for (Map.Entry<SettingsTable, Set<String>> entry : keys.entrySet()) {
+            SettingsObservers.getInstance().retain(owner, resolver, entry.getKey());
+            cache.prefetch(resolver, entry.getKey(), entry.getValue(), UserHandle.USER_CURRENT,
+                    SettingsStats.getScope(manager));
+        }
+    }
+
+    static Map<SettingsTable, Set<String>> collectKeys(Resources res, int xmlResId) {
+        final Map<SettingsTable, Set<String>> keys = new EnumMap<>(SettingsTable.class);
+        try (XmlResourceParser parser = res.getXml(xmlResId)) {
+            int type;
+            while ((type = parser.next()) != XmlPullParser.END_DOCUMENT) {
+                if (type != XmlPullParser.START_TAG) continue;
+
+                final SettingsTable table = sPreferenceTables.get(parser.getName());
+                if (table == null) continue;
+
+                final String key = getKey(res, parser);
+                if (TextUtils.isEmpty(key)) continue;
+
+                keys.computeIfAbsent(table, t -> new HashSet<>()).add(key);
+            }
+        } catch (XmlPullParserException | IOException | Resources.NotFoundException e) {
+            Log.w(TAG, "Failed to collect keys", e);
+        }
+        return keys;
+    }
+
+    private static String getKey(Resources res, XmlResourceParser parser) {
+        final int keyResId = parser.getAttributeResourceValue(ANDROID_NS, "key", 0);
+        return keyResId != 0 ? res.getString(keyResId)
+                : parser.getAttributeValue(ANDROID_NS, "key");
+    }
+}
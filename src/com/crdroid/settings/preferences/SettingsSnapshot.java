@@ -0,0 +1,215 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import android.content.ContentResolver;
+import android.os.UserHandle;
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * The crDroid settings of a device. Managed keys are the ones declared by our
+ * preference screens (see {@link SettingsKeys}) plus those with a reset
+ * default. Keys with a default are stored when they differ from it, the
+ * others always, as unset when they are. Used as a profile: applying a
+ * snapshot resets every key with a default, unsets the registry keys it
+ * doesn't hold and then applies the stored values, in one diff-only pass.
+ *
+ * The file format is plain UTF-8 text, one section per table:
+ * <pre>
+ * # crDroid settings snapshot 1
+ * [SYSTEM]
+ * key=value
+ * unset_key
+ * </pre>
+ */
+public final class SettingsSnapshot {
+
+    private static final String TAG = "SettingsSnapshot";
+
+    private static final String HEADER = "# crDroid settings snapshot 1";
+
+    private final SettingsValues mValues;
+
+    private SettingsSnapshot(SettingsValues values) {
+        mValues = values;
+    }
+
+    /**
+     * Reads the current value of every managed key, one query per table.
+     */
+    public static SettingsSnapshot capture(ContentResolver resolver, SettingsValues defaults) {
+        final SettingsValues values = new SettingsValues();
+        final int userId = SettingsCache.getInstance().resolveUserId(UserHandle.USER_CURRENT);
+        for (SettingsTable table : SettingsTable.values()) {
+            final Map<String, String> tableDefaults = defaults.get(table);
+            final Set<String> keys = new HashSet<>(SettingsKeys.getKeys(table));
+            keys.addAll(tableDefaults.keySet());
+            if (keys.isEmpty()) continue;
+
+            final Map<String, String> current = SettingsBatchWriter.read(resolver, table,
+                    keys, userId);
+            for (String key : keys) {
+                final String value = current.get(key);
+                // Without a default to fall back to, unset is a value to restore too
+                if (!tableDefaults.containsKey(key)
+                        || !Objects.equals(value, tableDefaults.get(key))) {
+                    values.putString(table, key, value);
+                }
+            }
+        }
+        return new SettingsSnapshot(values);
+    }
+
+    public SettingsValues getValues() {
+        return mValues;
+    }
+
+    /**
+     * Applies the snapshot on top of defaults, registry keys without a
+     * default that the snapshot doesn't hold are unset. Keys that are neither
+     * in the defaults nor in the registry are not managed by us and are
+     * ignored.
+     */
+    public SettingsBatchWriter.Result apply(ContentResolver resolver, SettingsValues defaults) {
+        final SettingsValues target = new SettingsValues();
+        for (SettingsTable table : SettingsTable.values()) {
+            final Map<String, String> tableDefaults = defaults.get(table);
+            for (Map.Entry<String, String> entry : tableDefaults.entrySet()) {
+                target.putString(table, entry.getKey(), entry.getValue());
+            }
+            for (String key : SettingsKeys.getKeys(table)) {
+                if (!tableDefaults.containsKey(key)) {
+                    target.putString(table, key, null);
+                }
+            }
+        }
+        for (SettingsTable table : mValues.getTables()) {
+            final Map<String, String> tableDefaults = defaults.get(table);
+            for (Map.Entry<String, String> entry : mValues.get(table).entrySet()) {
+                if (!tableDefaults.containsKey(entry.getKey())
+                        && !SettingsKeys.contains(table, entry.getKey())) {
+                    Log.w(TAG, "Ignoring unknown key " + table + "/" + entry.getKey());
+                    continue;
+                }
+                target.putString(table, entry.getKey(), entry.getValue());
+            }
+        }
+        return SettingsBatchWriter.apply(resolver, target);
+    }
+
+    public void writeTo(OutputStream out) throws IOException {
+        final Writer writer = new BufferedWriter(
+                new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(HEADER);
+        writer.write('\n');
+        for (SettingsTable table : mValues.getTables()) {
+            writer.write('[');
+            writer.write(table.name());
+            writer.write("]\n");
+            for (Map.Entry<String, String> entry : mValues.get(table).entrySet()) {
+                writer.write(entry.getKey());
+                if (entry.getValue() != null) {
+                    writer.write('=');
+                    writer.write(escape(entry.getValue()));
+                }
+                writer.write('\n');
+            }
+        }
+        writer.flush();
+    }
+
+    public static SettingsSnapshot readFrom(InputStream in) throws IOException {
+        final BufferedReader reader = new BufferedReader(
+                new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (!HEADER.equals(reader.readLine())) {
+            throw new IOException("Not a settings snapshot");
+        }
+
+        final SettingsValues values = new SettingsValues();
+        SettingsTable table = null;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isEmpty() || line.charAt(0) == '#') continue;
+            if (line.charAt(0) == '[' && line.charAt(line.length() - 1) == ']') {
+                try {
+                    table = SettingsTable.valueOf(line.substring(1, line.length() - 1));
+                } catch (IllegalArgumentException e) {
+                    throw new IOException("Unknown table " + line);
+                }
+                continue;
+            }
+            if (table == null) {
+                throw new IOException("Value outside of a table: " + line);
+            }
+            final int separator = line.indexOf('=');
+            if (separator < 0) {
+                values.putString(table, line, null);
+            } else {
+                values.putString(table, line.substring(0, separator),
+                        unescape(line.substring(separator + 1)));
+            }
+        }
+        return new SettingsSnapshot(values);
+    }
+
+    private static String escape(String value) {
+        if (value.indexOf('\\') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        final StringBuilder sb = new StringBuilder(value.length() + 8);
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                default: sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        final StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                c = value.charAt(++i);
+                if (c == 'n') c = '\n';
+                else if (c == 'r') c = '\r';
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+}
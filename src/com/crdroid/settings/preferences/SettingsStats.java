@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import androidx.preference.PreferenceDataStore;
+import androidx.preference.PreferenceManager;
+
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Read/write counters and provider latency histograms for the settings stores,
+ * broken down by scope (the fragment whose preferences own the store), table
+ * and key.
+ *
+ * Dumped with "adb shell dumpsys activity com.android.settings", tests can use
+ * {@link #snapshot()}.
+ */
+public final class SettingsStats {
+
+    public static final String UNKNOWN_SCOPE = "unknown";
+
+    /** Key used for the whole-table queries of the prefetcher. */
+    public static final String PREFETCH_KEY = "*";
+
+    // Upper bounds of the latency buckets in microseconds, the last bucket is open
+    private static final long[] BUCKET_BOUNDS_US =
+            { 100, 250, 500, 1000, 2000, 5000, 10000, 20000, 50000 };
+
+    private static final SettingsStats sInstance = new SettingsStats();
+
+    // Scope of each fragment, keyed by the manager its preferences attach through
+    private static final Map<PreferenceManager, String> sScopes = new WeakHashMap<>();
+
+    private final Map<String, KeyStats> mStats = new ConcurrentHashMap<>();
+
+    private SettingsStats() {
+    }
+
+    public static SettingsStats getInstance() {
+        return sInstance;
+    }
+
+    /**
+     * Sets the scope the stores of the manager's preferences are accounted to,
+     * fragments call this before inflating their preferences.
+     */
+    public static void setScope(PreferenceManager manager, String scope) {
+        synchronized (sScopes) {
+            sScopes.put(manager, scope == null ? UNKNOWN_SCOPE : scope);
+        }
+    }
+
+    public static String getScope(PreferenceManager manager) {
+        if (manager == null) return UNKNOWN_SCOPE;
+        synchronized (sScopes) {
+            final String scope = sScopes.get(manager);
+            return scope == null ? UNKNOWN_SCOPE : scope;
+        }
+    }
+
+    /**
+     * Accounts a settings store to the scope of the manager its preference is
+     * being attached through, before the preference reads its initial value.
+     */
+    public static void attachScope(PreferenceDataStore store, PreferenceManager manager) {
+        if (store instanceof SettingsStore) {
+            ((SettingsStore) store).setScope(getScope(manager));
+        }
+    }
+
+    public KeyStats get(String scope, SettingsTable table, String key) {
+        final String id = scope + '/' + table + '/' + key;
+        KeyStats stats = mStats.get(id);
+        if (stats == null) {
+            stats = mStats.computeIfAbsent(id, i -> new KeyStats(scope, table, key));
+        }
+        return stats;
+    }
+
+    public List<Snapshot> snapshot() {
+        final List<Snapshot> snapshot = new ArrayList<>(mStats.size());
+        for (KeyStats stats : mStats.values()) {
+            snapshot.add(new Snapshot(stats));
+        }
+        Collections.sort(snapshot, Comparator.comparing((Snapshot s) -> s.scope)
+                .thenComparing(s -> s.table)
+                .thenComparing(s -> s.key));
+        return Collections.unmodifiableList(snapshot);
+    }
+
+    public void reset() {
+        mStats.clear();
+    }
+
+    public void dump(PrintWriter pw) {
+        pw.println("Settings store stats:");
+        pw.println("  " + SettingsCache.getInstance());
+        final List<Snapshot> snapshot = snapshot();
+        String scope = null;
+        long providerCalls = 0;
+        for (Snapshot s : snapshot) {
+            if (!s.scope.equals(scope)) {
+                scope = s.scope;
+                pw.println("  " + scope + ":");
+            }
+            pw.println("    " + s);
+            providerCalls += s.providerReads + s.writes;
+        }
+        pw.println("  total provider calls: " + providerCalls);
+    }
+
+    public static final class KeyStats {
+        final String scope;
+        final SettingsTable table;
+        final String key;
+
+        final AtomicLong reads = new AtomicLong();
+        final AtomicLong hits = new AtomicLong();
+        final AtomicLong providerReads = new AtomicLong();
+        final AtomicLong writes = new AtomicLong();
+        final AtomicLong providerNanos = new AtomicLong();
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKET_BOUNDS_US.length + 1);
+
+        KeyStats(String scope, SettingsTable table, String key) {
+            this.scope = scope;
+            this.table = table;
+            this.key = key;
+        }
+
+        void recordHit() {
+            reads.incrementAndGet();
+            hits.incrementAndGet();
+        }
+
+        void recordProviderRead(long nanos) {
+            reads.incrementAndGet();
+            providerReads.incrementAndGet();
+            recordLatency(nanos);
+        }
+
+        void recordWrite(long nanos) {
+            writes.incrementAndGet();
+            recordLatency(nanos);
+        }
+
+        private void recordLatency(long nanos) {
+            providerNanos.addAndGet(nanos);
+            final long micros = nanos / 1000;
+            int bucket = 0;
+            while (bucket < BUCKET_BOUNDS_US.length && micros >= BUCKET_BOUNDS_US[bucket]) {
+                bucket++;
+            }
+            histogram.incrementAndGet(bucket);
+        }
+    }
+
+    public static final class Snapshot {
+        public final String scope;
+        public final SettingsTable table;
+        public final String key;
+        public final long reads;
+        public final long hits;
+        public final long providerReads;
+        public final long writes;
+        public final long providerNanos;
+        /** Provider call counts per latency bucket, see {@link #getBucketBoundsUs()}. */
+        public final long[] histogram;
+
+        Snapshot(KeyStats stats) {
+            scope = stats.scope;
+            table = stats.table;
+            key = stats.key;
+            reads = stats.reads.get();
+            hits = stats.hits.get();
+            providerReads = stats.providerReads.get();
+            writes = stats.writes.get();
+            providerNanos = stats.providerNanos.get();
+            histogram = new long[stats.histogram.length()];
+            for (int i = 0; i < histogram.length; i++) {
+                histogram[i] = stats.histogram.get(i);
+            }
+        }
+
+        public static long[] getBucketBoundsUs() {
+            return BUCKET_BOUNDS_US.clone();
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder()
+                    .append(table).append('/').append(key)
+                    .append(" reads=").append(reads)
+                    .append(" hits=").append(hits)
+                    .append(" providerReads=").append(providerReads)
+                    .append(" writes=").append(writes)
+                    .append(" providerMs=").append(providerNanos / 1000000f)
+                    .append(" histUs=[");
+            for (int i = 0; i < histogram.length; i++) {
+                if (i > 0) sb.append(' ');
+                sb.append(i < BUCKET_BOUNDS_US.length ? "<" + BUCKET_BOUNDS_US[i] : ">=" +
+                        BUCKET_BOUNDS_US[BUCKET_BOUNDS_US.length - 1]).append(':')
+                        .append(histogram[i]);
+            }
+            return sb.append(']').toString();
+        }
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import android.content.ContentResolver;
+import android.os.Handler;
+import android.os.Looper;
+import android.preference.PreferenceDataStore;
+import android.os.UserHandle;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Base for the settings provider backed preference stores.
+ *
+ * Reads go through the shared {@link SettingsCache}, typed values are parsed
+ * the same way the Settings getters do.
+ *
+ * In write-behind mode puts are coalesced per key and only the last value is
+ * written once the store has been idle for {@link #WRITE_BEHIND_DELAY_MS}, or
+ * when {@link #flush()} is called.
+ */
+public abstract class SettingsStore extends androidx.preference.PreferenceDataStore
+        implements PreferenceDataStore {
+
+    private static final long WRITE_BEHIND_DELAY_MS = 200;
+
+    // Marks pending deletions, the pending map can't tell them from misses otherwise
+    private static final String PENDING_NULL = new String();
+
+    private static final Handler sHandler = new Handler(Looper.getMainLooper());
+
+    private final ContentResolver mContentResolver;
+    private final SettingsTable mTable;
+    private final SettingsCache mCache;
+    private final SettingsStats mStats;
+    private volatile String mScope = SettingsStats.UNKNOWN_SCOPE;
+    // Stats of each key in the current scope, so reads don't look them up again
+    private final Map<String, SettingsStats.KeyStats> mKeyStats = new ConcurrentHashMap<>();
+
+    private final Map<String, String> mPending = new LinkedHashMap<>();
+    private final Runnable mFlushRunnable = this::flush;
+    private boolean mWriteBehind;
+
+    protected SettingsStore(ContentResolver contentResolver, SettingsTable table) {
+        mContentResolver = contentResolver;
+        mTable = table;
+        mCache = SettingsCache.getInstance();
+        mStats = SettingsStats.getInstance();
+    }
+
+    public SettingsTable getTable() {
+        return mTable;
+    }
+
+    /**
+     * Sets the scope reads and writes are accounted to, see
+     * {@link SettingsStats#attachScope}.
+     */
+    public void setScope(String scope) {
+        if (scope.equals(mScope)) return;
+        mScope = scope;
+        mKeyStats.clear();
+    }
+
+    private SettingsStats.KeyStats getKeyStats(String key) {
+        SettingsStats.KeyStats stats = mKeyStats.get(key);
+        if (stats == null) {
+            stats = mStats.get(mScope, mTable, key);
+            mKeyStats.put(key, stats);
+        }
+        return stats;
+    }
+
+    public void setWriteBehind(boolean writeBehind) {
+        if (mWriteBehind && !writeBehind) {
+            flush();
+        }
+        mWriteBehind = writeBehind;
+    }
+
+    public boolean isWriteBehind() {
+        return mWriteBehind;
+    }
+
+    /**
+     * Writes out every coalesced value right away.
+     */
+    public void flush() {
+        sHandler.removeCallbacks(mFlushRunnable);
+        final List<Map.Entry<String, String>> pending;
+        synchronized (mPending) {
+            if (mPending.isEmpty()) return;
+            pending = new ArrayList<>(mPending.entrySet());
+            mPending.clear();
+        }
+        for (Map.Entry<String, String> entry : pending) {
+            final String value = entry.getValue();
+            writeString(entry.getKey(), value == PENDING_NULL ? null : value);
+        }
+    }
+
+    public boolean contains(String key) {
+        return getString(key, null) != null;
+    }
+
+    public boolean getBoolean(String key, boolean defValue) {
+        return getInt(key, defValue ? 1 : 0) != 0;
+    }
+
+    public float getFloat(String key, float defValue) {
+        String value = getString(key, null);
+        if (value == null) return defValue;
+        try {
+            return Float.parseFloat(value);
+        } catch (NumberFormatException e) {
+            return defValue;
+        }
+    }
+
+    public int getInt(String key, int defValue) {
+        String value = getString(key, null);
+        if (value == null) return defValue;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return defValue;
+        }
+    }
+
+    public long getLong(String key, long defValue) {
+        String value = getString(key, null);
+        if (value == null) return defValue;
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return defValue;
+        }
+    }
+
+    public String getString(String key, String defValue) {
+        synchronized (mPending) {
+            final String pending = mPending.get(key);
+            if (pending != null) {
+                return pending == PENDING_NULL ? defValue : pending;
+            }
+        }
+        String result = mCache.getString(mContentResolver, mTable, key, UserHandle.USER_CURRENT,
+                getKeyStats(key));
+        return result == null ? defValue : result;
+    }
+
+    public void putBoolean(String key, boolean value) {
+        putInt(key, value ? 1 : 0);
+    }
+
+    public void putFloat(String key, float value) {
+        putString(key, Float.toString(value));
+    }
+
+    public void putInt(String key, int value) {
+        putString(key, Integer.toString(value));
+    }
+
+    public void putLong(String key, long value) {
+        putString(key, Long.toString(value));
+    }
+
+    public void putString(String key, String value) {
+        if (!mWriteBehind) {
+            writeString(key, value);
+            return;
+        }
+        synchronized (mPending) {
+            // Re-insert so the flush order follows the last update
+            mPending.remove(key);
+            mPending.put(key, value == null ? PENDING_NULL : value);
+        }
+        sHandler.removeCallbacks(mFlushRunnable);
+        sHandler.postDelayed(mFlushRunnable, WRITE_BEHIND_DELAY_MS);
+    }
+
+    private void writeString(String key, String value) {
+        mCache.putString(mContentResolver, mTable, key, value, UserHandle.USER_CURRENT,
+                getKeyStats(key));
+    }
+}
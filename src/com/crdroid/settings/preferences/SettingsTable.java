@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import android.content.ContentProvider;
+import android.content.ContentResolver;
+import android.net.Uri;
+import android.provider.Settings;
+
+import lineageos.providers.LineageSettings;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * The settings provider tables backing the crDroid preference stores.
+ *
+ * Every typed Settings accessor is a thin wrapper around the string value,
+ * so the stores only need raw string access per table.
+ */
+public enum SettingsTable {
+
+    SYSTEM(Settings.System.CONTENT_URI) {
+        @Override
+        String getStringForUser(ContentResolver resolver, String key, int userId) {
+            return Settings.System.getStringForUser(resolver, key, userId);
+        }
+
+        @Override
+        boolean putStringForUser(ContentResolver resolver, String key, String value, int userId) {
+            return Settings.System.putStringForUser(resolver, key, value, userId);
+        }
+
+        @Override
+        Set<String> loadMovedKeys() {
+            Set<String> keys = new HashSet<>();
+            Settings.System.getMovedToSecureSettings(keys);
+            Settings.System.getMovedToGlobalSettings(keys);
+            return keys;
+        }
+    },
+
+    SECURE(Settings.Secure.CONTENT_URI) {
+        @Override
+        String getStringForUser(ContentResolver resolver, String key, int userId) {
+            return Settings.Secure.getStringForUser(resolver, key, userId);
+        }
+
+        @Override
+        boolean putStringForUser(ContentResolver resolver, String key, String value, int userId) {
+            return Settings.Secure.putStringForUser(resolver, key, value, userId);
+        }
+
+        @Override
+        Set<String> loadMovedKeys() {
+            Set<String> keys = new HashSet<>();
+            Settings.Secure.getMovedToGlobalSettings(keys);
+            return keys;
+        }
+    },
+
+    GLOBAL(Settings.Global.CONTENT_URI) {
+        // Global settings are device wide, the user is ignored
+        @Override
+        String getStringForUser(ContentResolver resolver, String key, int userId) {
+            return Settings.Global.getString(resolver, key);
+        }
+
+        @Override
+        boolean putStringForUser(ContentResolver resolver, String key, String value, int userId) {
+            return Settings.Global.putString(resolver, key, value);
+        }
+
+        @Override
+        public Uri getContentUriForUser(int userId) {
+            return getContentUri();
+        }
+    },
+
+    LINEAGE_SYSTEM(LineageSettings.System.CONTENT_URI) {
+        @Override
+        String getStringForUser(ContentResolver resolver, String key, int userId) {
+            return LineageSettings.System.getStringForUser(resolver, key, userId);
+        }
+
+        @Override
+        boolean putStringForUser(ContentResolver resolver, String key, String value, int userId) {
+            return LineageSettings.System.putStringForUser(resolver, key, value, userId);
+        }
+    },
+
+    LINEAGE_SECURE(LineageSettings.Secure.CONTENT_URI) {
+        @Override
+        String getStringForUser(ContentResolver resolver, String key, int userId) {
+            return LineageSettings.Secure.getStringForUser(resolver, key, userId);
+        }
+
+        @Override
+        boolean putStringForUser(ContentResolver resolver, String key, String value, int userId) {
+            return LineageSettings.Secure.putStringForUser(resolver, key, value, userId);
+        }
+    };
+
+    // Provider columns, shared by the framework and the lineage providers
+    public static final String NAME = "name";
+    public static final String VALUE = "value";
+
+    private final Uri mContentUri;
+    private volatile Set<String> mMovedKeys;
+
+    SettingsTable(Uri contentUri) {
+        mContentUri = contentUri;
+    }
+
+    public Uri getContentUri() {
+        return mContentUri;
+    }
+
+    public Uri getContentUriForUser(int userId) {
+        return ContentProvider.maybeAddUserId(mContentUri, userId);
+    }
+
+    /**
+     * Whether reads of the key are redirected to another table by the
+     * Settings getters, in which case a raw query of this table can't be
+     * trusted for it.
+     */
+    public boolean isMovedKey(String key) {
+        Set<String> movedKeys = mMovedKeys;
+        if (movedKeys == null) {
+            movedKeys = Collections.unmodifiableSet(loadMovedKeys());
+            mMovedKeys = movedKeys;
+        }
+        return movedKeys.contains(key);
+    }
+
+    Set<String> loadMovedKeys() {
+        return Collections.emptySet();
+    }
+
+    abstract String getStringForUser(ContentResolver resolver, String key, int userId);
+
+    abstract boolean putStringForUser(ContentResolver resolver, String key, String value, int userId);
+}
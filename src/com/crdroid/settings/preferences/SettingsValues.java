@@ -0,0 +1,66 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.preferences;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A set of settings values grouped by table, such as the defaults restored by
+ * "Reset all". Values are kept as the strings the provider stores, a null
+ * value deletes the setting.
+ */
+public final class SettingsValues {
+
+    private final Map<SettingsTable, Map<String, String>> mValues =
+            new EnumMap<>(SettingsTable.class);
+
+    public void putInt(SettingsTable table, String key, int value) {
+        putString(table, key, Integer.toString(value));
+    }
+
+    public void putLong(SettingsTable table, String key, long value) {
+        putString(table, key, Long.toString(value));
+    }
+
+    public void putFloat(SettingsTable table, String key, float value) {
+        putString(table, key, Float.toString(value));
+    }
+
+    public void putString(SettingsTable table, String key, String value) {
+        mValues.computeIfAbsent(table, t -> new LinkedHashMap<>()).put(key, value);
+    }
+
+    public Set<SettingsTable> getTables() {
+        return Collections.unmodifiableSet(mValues.keySet());
+    }
+
+    public Map<String, String> get(SettingsTable table) {
+        final Map<String, String> values = mValues.get(table);
+        return values == null ? Collections.emptyMap() : Collections.unmodifiableMap(values);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Map<String, String> values : mValues.values()) {
+            size += values.size();
+        }
+        return size;
+    }
+}
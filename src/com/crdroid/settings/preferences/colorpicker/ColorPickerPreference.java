@@ -34,6 +34,7 @@ import android.os.Bundle;
 import android.os.Parcel;
 import android.os.Parcelable;
 import androidx.preference.Preference;
+import androidx.preference.PreferenceManager;
 import androidx.preference.PreferenceViewHolder;
 import android.util.AttributeSet;
 import android.view.LayoutInflater;
@@ -47,6 +48,7 @@ import android.widget.ImageView;
 import android.widget.LinearLayout;
 
 import com.android.settings.R;
+import com.crdroid.settings.preferences.SettingsStats;
 
 /**
  * A preference type that allows a user to choose a time
@@ -98,6 +100,12 @@ public class ColorPickerPreference extends Preference implements
         return defaultValue;
     }
 
+    @Override
+    protected void onAttachedToHierarchy(PreferenceManager preferenceManager) {
+        SettingsStats.attachScope(getPreferenceDataStore(), preferenceManager);
+        super.onAttachedToHierarchy(preferenceManager);
+    }
+
     @Override
     protected void onSetInitialValue(boolean restorePersistedValue, Object defaultValue) {
         // when using PreferenceDataStore, restorePersistedValue is always true (see Preference class for reference)
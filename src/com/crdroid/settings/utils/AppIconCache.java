@@ -0,0 +1,160 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.utils;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.ApplicationInfo;
+import android.content.pm.PackageManager;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.util.LruCache;
+
+/**
+ * Process wide cache of app icons for the app pickers.
+ *
+ * Icons are rendered once into bitmaps of list item size, keyed by package
+ * and version, and the cache is capped by bitmap bytes. Entries of a package
+ * are dropped as soon as it is changed, replaced or removed.
+ */
+public final class AppIconCache {
+
+    // Share of the heap the icons may take
+    private static final int MEMORY_FRACTION = 16;
+
+    private static AppIconCache sInstance;
+
+    private final PackageManager mPm;
+    private final Resources mResources;
+    private final int mIconSize;
+    private final LruCache<String, Bitmap> mCache;
+
+    private final BroadcastReceiver mPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final Uri data = intent.getData();
+            if (data != null) {
+                evict(data.getSchemeSpecificPart());
+            }
+        }
+    };
+
+    private AppIconCache(Context context) {
+        mPm = context.getPackageManager();
+        mResources = context.getResources();
+        mIconSize = mResources.getDimensionPixelSize(android.R.dimen.app_icon_size);
+        mCache = new LruCache<String, Bitmap>(
+                (int) (Runtime.getRuntime().maxMemory() / MEMORY_FRACTION)) {
+            @Override
+            protected int sizeOf(String key, Bitmap bitmap) {
+                return bitmap.getAllocationByteCount();
+            }
+        };
+
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addDataScheme("package");
+        context.registerReceiver(mPackageReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
+    }
+
+    public static synchronized AppIconCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new AppIconCache(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    /**
+     * Returns the icon of the app, loading and scaling it on a miss. Safe to
+     * call from any thread.
+     */
+    public Drawable getIcon(ApplicationInfo info) {
+        return new BitmapDrawable(mResources, getBitmap(info));
+    }
+
+    public Bitmap getBitmap(ApplicationInfo info) {
+        final String key = getKey(info.packageName, info.longVersionCode);
+        Bitmap bitmap = mCache.get(key);
+        if (bitmap == null) {
+            bitmap = render(info.loadIcon(mPm));
+            mCache.put(key, bitmap);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Adds an icon that was scaled earlier, e.g. read back from the
+     * {@link AppIndex}.
+     */
+    public void put(String packageName, long versionCode, Bitmap bitmap) {
+        mCache.put(getKey(packageName, versionCode), bitmap);
+    }
+
+    /**
+     * Returns the icon only if it is already cached.
+     */
+    public Drawable peekIcon(ApplicationInfo info) {
+        final Bitmap bitmap = mCache.get(getKey(info.packageName, info.longVersionCode));
+        return bitmap == null ? null : new BitmapDrawable(mResources, bitmap);
+    }
+
+    public int getIconSize() {
+        return mIconSize;
+    }
+
+    public void evictAll() {
+        mCache.evictAll();
+    }
+
+    public void evict(String packageName) {
+        if (packageName == null) return;
+        final String prefix = packageName + '/';
+        for (String key : mCache.snapshot().keySet()) {
+            if (key.startsWith(prefix)) {
+                mCache.remove(key);
+            }
+        }
+    }
+
+    private static String getKey(String packageName, long versionCode) {
+        return packageName + '/' + versionCode;
+    }
+
+    private Bitmap render(Drawable icon) {
+        if (icon instanceof BitmapDrawable) {
+            final Bitmap source = ((BitmapDrawable) icon).getBitmap();
+            if (source != null && source.getWidth() <= mIconSize
+                    && source.getHeight() <= mIconSize) {
+                return source;
+            }
+        }
+        final Bitmap bitmap = Bitmap.createBitmap(mIconSize, mIconSize, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+        icon.setBounds(0, 0, mIconSize, mIconSize);
+        icon.draw(canvas);
+        canvas.setBitmap(null);
+        return bitmap;
+    }
+}
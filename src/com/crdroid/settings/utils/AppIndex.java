@@ -0,0 +1,290 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.utils;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+import android.os.Handler;
+import android.os.Looper;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * On-disk index of app labels and scaled icons used by the app pickers.
+ *
+ * Entries are keyed by package and remember the version code and last update
+ * time they were built from, so callers can check them against the installed
+ * packages and only reload the ones that changed. Labels depend on the locale
+ * and icons on the icon shape and theme overlays, the whole index is dropped
+ * when either changes.
+ */
+public final class AppIndex {
+
+    private static final String TAG = "AppIndex";
+
+    private static final String FILE_NAME = "app_index.bin";
+    private static final int MAGIC = 0x4352414c;
+    private static final int VERSION = 2;
+
+    private static final byte[] NO_ICON = new byte[0];
+
+    // Package broadcasts come in bursts, e.g. during an update of several apps
+    private static final long SAVE_DELAY_MS = 2000;
+
+    private static AppIndex sInstance;
+
+    public static final class Entry {
+        public final String packageName;
+        public final long versionCode;
+        public final long lastUpdateTime;
+        public final String label;
+        public final List<String> activityTitles;
+        public final Bitmap icon;
+        // The icon as written to disk, encoded at most once per entry. Guarded by AppIndex.
+        private byte[] mPng;
+
+        public Entry(String packageName, long versionCode, long lastUpdateTime, String label,
+                List<String> activityTitles, Bitmap icon) {
+            this.packageName = packageName;
+            this.versionCode = versionCode;
+            this.lastUpdateTime = lastUpdateTime;
+            this.label = label;
+            this.activityTitles = Collections.unmodifiableList(activityTitles);
+            this.icon = icon;
+        }
+
+        public boolean isCurrent(PackageInfo info) {
+            return info.getLongVersionCode() == versionCode
+                    && info.lastUpdateTime == lastUpdateTime;
+        }
+    }
+
+    private final AtomicFile mFile;
+    private final AppIconCache mIconCache;
+    private final Resources mResources;
+    private final Map<String, Entry> mEntries = new HashMap<>();
+    private final Handler mHandler = new Handler(Looper.getMainLooper());
+    private final Runnable mSaveRunnable =
+            () -> AppLoadExecutor.submit(AppLoadExecutor.PRIORITY_ICON, this::save);
+    // Of the configuration the entries were built for
+    private int mConfigFingerprint;
+    private boolean mLoaded;
+    private boolean mDirty;
+
+    private AppIndex(Context context) {
+        mFile = new AtomicFile(new File(context.getCacheDir(), FILE_NAME));
+        mIconCache = AppIconCache.getInstance(context);
+        mResources = context.getResources();
+    }
+
+    public static synchronized AppIndex getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new AppIndex(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    /**
+     * Returns all entries, reading the file on first use. Does disk I/O, keep
+     * it off the main thread.
+     */
+    public synchronized Collection<Entry> getEntries() {
+        ensureLoaded();
+        checkConfig();
+        return new ArrayList<>(mEntries.values());
+    }
+
+    public synchronized Entry get(String packageName) {
+        ensureLoaded();
+        return mEntries.get(packageName);
+    }
+
+    public synchronized void put(Entry entry) {
+        ensureLoaded();
+        final Entry old = mEntries.put(entry.packageName, entry);
+        if (old != null && old.icon == entry.icon && entry.mPng == null) {
+            // Same icon, e.g. only the label was reloaded
+            entry.mPng = old.mPng;
+        }
+        mDirty = true;
+    }
+
+    public synchronized void remove(String packageName) {
+        ensureLoaded();
+        if (mEntries.remove(packageName) != null) {
+            mDirty = true;
+        }
+    }
+
+    /** Drops the entries of packages not in the given set. */
+    public synchronized void retain(Collection<String> packageNames) {
+        ensureLoaded();
+        if (mEntries.keySet().retainAll(packageNames)) {
+            mDirty = true;
+        }
+    }
+
+    /** Writes the index if it changed since it was read or last saved. */
+    public synchronized void save() {
+        if (!mLoaded) return;
+        checkConfig();
+        if (!mDirty) return;
+        FileOutputStream fos = null;
+        try {
+            fos = mFile.startWrite();
+            write(new DataOutputStream(new BufferedOutputStream(fos)));
+            mFile.finishWrite(fos);
+            mDirty = false;
+        } catch (IOException e) {
+            Log.w(TAG, "Failed to write the app index", e);
+            mFile.failWrite(fos);
+        }
+    }
+
+    /**
+     * Saves the index on the {@link AppLoadExecutor} once it stopped changing
+     * for a moment, so a burst of changes is written once.
+     */
+    public void saveLater() {
+        mHandler.removeCallbacks(mSaveRunnable);
+        mHandler.postDelayed(mSaveRunnable, SAVE_DELAY_MS);
+    }
+
+    private void ensureLoaded() {
+        if (mLoaded) return;
+        mLoaded = true;
+        mConfigFingerprint = getConfigFingerprint();
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(mFile.getBaseFile())))) {
+            read(in);
+        } catch (FileNotFoundException e) {
+            // First run
+        } catch (IOException | RuntimeException e) {
+            Log.w(TAG, "Discarding unreadable app index", e);
+            mEntries.clear();
+        }
+    }
+
+    /* drops everything when the icons were rendered for another shape or theme */
+    private void checkConfig() {
+        final int fingerprint = getConfigFingerprint();
+        if (fingerprint == mConfigFingerprint) return;
+        mConfigFingerprint = fingerprint;
+        mEntries.clear();
+        mIconCache.evictAll();
+        mDirty = true;
+    }
+
+    /* changes with the icon mask and with any overlay applied to the framework or us */
+    private int getConfigFingerprint() {
+        return 31 * Arrays.hashCode(mResources.getAssets().getApkPaths())
+                + mResources.getString(com.android.internal.R.string.config_icon_mask).hashCode();
+    }
+
+    private void read(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+            throw new IOException("Unknown app index format");
+        }
+        if (!Locale.getDefault().toLanguageTag().equals(in.readUTF())
+                || in.readInt() != mIconCache.getIconSize()
+                || in.readInt() != mConfigFingerprint) {
+            // Labels or icons are stale, rebuild from scratch
+            return;
+        }
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final String packageName = in.readUTF();
+            final long versionCode = in.readLong();
+            final long lastUpdateTime = in.readLong();
+            final String label = in.readUTF();
+            final int titleCount = in.readInt();
+            final List<String> titles = new ArrayList<>(titleCount);
+            for (int j = 0; j < titleCount; j++) {
+                titles.add(in.readUTF());
+            }
+            final byte[] png = new byte[in.readInt()];
+            in.readFully(png);
+            final Bitmap icon = png.length == 0 ? null
+                    : BitmapFactory.decodeByteArray(png, 0, png.length);
+            if (icon != null) {
+                mIconCache.put(packageName, versionCode, icon);
+            }
+            final Entry entry = new Entry(packageName, versionCode, lastUpdateTime,
+                    label, titles, icon);
+            entry.mPng = icon != null ? png : NO_ICON;
+            mEntries.put(packageName, entry);
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeUTF(Locale.getDefault().toLanguageTag());
+        out.writeInt(mIconCache.getIconSize());
+        out.writeInt(mConfigFingerprint);
+        out.writeInt(mEntries.size());
+        for (Entry entry : mEntries.values()) {
+            out.writeUTF(entry.packageName);
+            out.writeLong(entry.versionCode);
+            out.writeLong(entry.lastUpdateTime);
+            out.writeUTF(entry.label);
+            out.writeInt(entry.activityTitles.size());
+            for (String title : entry.activityTitles) {
+                out.writeUTF(title);
+            }
+            final byte[] png = encodeIcon(entry);
+            out.writeInt(png.length);
+            out.write(png);
+        }
+        out.flush();
+    }
+
+    /* only new or changed icons get encoded, the others keep what was read or written */
+    private static byte[] encodeIcon(Entry entry) {
+        if (entry.mPng == null) {
+            if (entry.icon == null) {
+                entry.mPng = NO_ICON;
+            } else {
+                final ByteArrayOutputStream png = new ByteArrayOutputStream();
+                entry.icon.compress(Bitmap.CompressFormat.PNG, 100, png);
+                entry.mPng = png.toByteArray();
+            }
+        }
+        return entry.mPng;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.utils;
+
+import android.os.Process;
+import android.util.Log;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded, prioritised pool for loading app labels and icons.
+ *
+ * The pool has one thread per CPU, idle threads go away after a few seconds.
+ * Queued tasks run by priority and in submission order within a priority.
+ */
+public final class AppLoadExecutor {
+
+    private static final String TAG = "AppLoadExecutor";
+
+    /** Icons of rows that are on screen. */
+    public static final int PRIORITY_VISIBLE = 0;
+    public static final int PRIORITY_LABEL = 1;
+    public static final int PRIORITY_ICON = 2;
+
+    private static final int THREADS = Math.max(1, Runtime.getRuntime().availableProcessors());
+    private static final long KEEP_ALIVE_SECONDS = 5;
+
+    private static final AtomicLong sSequence = new AtomicLong();
+    private static final ThreadPoolExecutor sExecutor;
+
+    static {
+        final AtomicInteger count = new AtomicInteger();
+        sExecutor = new ThreadPoolExecutor(THREADS, THREADS, KEEP_ALIVE_SECONDS,
+                TimeUnit.SECONDS, new PriorityBlockingQueue<>(), r -> new Thread(() -> {
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+                    r.run();
+                }, "AppLoader-" + count.incrementAndGet()));
+        sExecutor.allowCoreThreadTimeOut(true);
+    }
+
+    private AppLoadExecutor() {
+    }
+
+    public static Future<?> submit(int priority, Runnable runnable) {
+        final Task task = new Task(priority, runnable);
+        sExecutor.execute(task);
+        return task;
+    }
+
+    /** Cancels a task, dropping it from the queue if it didn't start yet. */
+    public static void cancel(Future<?> future) {
+        future.cancel(false);
+        if (future instanceof Runnable) {
+            sExecutor.remove((Runnable) future);
+        }
+    }
+
+    private static final class Task extends FutureTask<Void> implements Comparable<Task> {
+        private final int mPriority;
+        private final long mSequence = sSequence.incrementAndGet();
+
+        Task(int priority, Runnable runnable) {
+            super(runnable, null);
+            mPriority = priority;
+        }
+
+        @Override
+        public int compareTo(Task another) {
+            if (mPriority != another.mPriority) {
+                return Integer.compare(mPriority, another.mPriority);
+            }
+            return Long.compare(mSequence, another.mSequence);
+        }
+
+        @Override
+        protected void done() {
+            // Nobody waits on the future, so this is the only place a failure shows up
+            if (isCancelled()) return;
+            try {
+                get();
+            } catch (ExecutionException e) {
+                Log.e(TAG, "Load task failed", e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
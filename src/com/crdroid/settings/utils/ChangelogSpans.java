@@ -0,0 +1,65 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.utils;
+
+import android.graphics.Typeface;
+import android.text.Spannable;
+import android.text.SpannableStringBuilder;
+import android.text.style.ForegroundColorSpan;
+import android.text.style.StyleSpan;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Highlights the dates, commits, committers and titles of the changelog.
+ */
+public final class ChangelogSpans {
+
+    // Compiled once, the changelog can be long and the view recreated often
+    private static final Pattern DATE = Pattern.compile("(={20}|\\d{4}-\\d{2}-\\d{2})");
+    private static final Pattern COMMIT = Pattern.compile("([a-f0-9]{7})");
+    private static final Pattern COMMITTER = Pattern.compile("\\[(\\D.*?)]");
+    private static final Pattern TITLE = Pattern.compile("(\\R\\s+[\\*]\\s.*)");
+
+    private ChangelogSpans() {
+    }
+
+    public static SpannableStringBuilder format(CharSequence data, int color) {
+        SpannableStringBuilder sb = new SpannableStringBuilder(data);
+
+        Matcher m = DATE.matcher(data);
+        while (m.find()){
+            sb.setSpan(new ForegroundColorSpan(color), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+            sb.setSpan(new StyleSpan(Typeface.BOLD), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+        }
+        m = COMMIT.matcher(data);
+        while (m.find()){
+            sb.setSpan(new StyleSpan(Typeface.NORMAL), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+        }
+        m = COMMITTER.matcher(data);
+        while (m.find()){
+            sb.setSpan(new ForegroundColorSpan(color), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+            sb.setSpan(new StyleSpan(Typeface.NORMAL), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+        }
+        m = TITLE.matcher(data);
+        while (m.find()){
+            sb.setSpan(new ForegroundColorSpan(color), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+            sb.setSpan(new StyleSpan(Typeface.BOLD), m.start(1), m.end(1), Spannable.SPAN_INCLUSIVE_INCLUSIVE);
+        }
+        return sb;
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.utils;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageManager;
+import android.content.pm.ResolveInfo;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Process wide cache of {@link PackageManager#queryIntentActivities} results.
+ *
+ * Results are keyed by the filter part of the intent (action, categories,
+ * data, type, package and component) plus the query flags, and are all
+ * dropped on any package change. They are shared, so they are handed out
+ * read only.
+ */
+public final class IntentQueryCache {
+
+    private static IntentQueryCache sInstance;
+
+    private final PackageManager mPm;
+    private final Map<Key, Result> mResults = new HashMap<>();
+    // Bumped on invalidation so queries racing with it aren't cached
+    private int mGeneration;
+
+    private final BroadcastReceiver mPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            invalidate();
+        }
+    };
+
+    public static final class Result {
+        public final List<ResolveInfo> activities;
+        /** Packages of the resolved activities. */
+        public final Set<String> packages;
+
+        private Result(List<ResolveInfo> activities) {
+            final Set<String> packages = new HashSet<>();
+            for (ResolveInfo info : activities) {
+                packages.add(info.activityInfo.packageName);
+            }
+            this.activities = Collections.unmodifiableList(activities);
+            this.packages = Collections.unmodifiableSet(packages);
+        }
+    }
+
+    private IntentQueryCache(Context context) {
+        mPm = context.getPackageManager();
+
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addAction(Intent.ACTION_PACKAGE_REPLACED);
+        filter.addDataScheme("package");
+        context.registerReceiver(mPackageReceiver, filter, Context.RECEIVER_NOT_EXPORTED);
+    }
+
+    public static synchronized IntentQueryCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new IntentQueryCache(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    /**
+     * Returns the activities matching the intent, querying the package
+     * manager on a miss. Safe to call from any thread.
+     */
+    public Result query(Intent intent, int flags) {
+        final Key key = new Key(intent, flags);
+        final int generation;
+        synchronized (this) {
+            final Result result = mResults.get(key);
+            if (result != null) return result;
+            generation = mGeneration;
+        }
+        final Result result = new Result(mPm.queryIntentActivities(intent, flags));
+        synchronized (this) {
+            if (generation == mGeneration) {
+                mResults.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    public List<ResolveInfo> queryIntentActivities(Intent intent, int flags) {
+        return query(intent, flags).activities;
+    }
+
+    /** Returns the packages with an activity in the launcher. */
+    public Set<String> getLauncherPackages() {
+        return query(getLauncherIntent(), 0).packages;
+    }
+
+    public static Intent getLauncherIntent() {
+        final Intent intent = new Intent(Intent.ACTION_MAIN, null);
+        intent.addCategory(Intent.CATEGORY_LAUNCHER);
+        return intent;
+    }
+
+    /**
+     * Drops all results. Package receivers that query right away should call
+     * this first, broadcast receivers run in no particular order.
+     */
+    public synchronized void invalidate() {
+        mResults.clear();
+        mGeneration++;
+    }
+
+    private static final class Key {
+        private final Intent mIntent;
+        private final int mFlags;
+
+        Key(Intent intent, int flags) {
+            // Callers may reuse and change their intent afterwards
+            mIntent = intent.cloneFilter();
+            mFlags = flags;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            final Key other = (Key) o;
+            return mFlags == other.mFlags && mIntent.filterEquals(other.mIntent);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * mIntent.filterHashCode() + mFlags;
+        }
+    }
+}
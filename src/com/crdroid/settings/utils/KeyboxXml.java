@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.utils;
+
+import android.util.Log;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+import org.xmlpull.v1.XmlPullParserFactory;
+
+import java.io.StringReader;
+
+/**
+ * Checks that a keybox XML holds exactly one keybox with both an ECDSA and
+ * an RSA key, each with a PEM private key and at least one certificate.
+ */
+public final class KeyboxXml {
+
+    private static final String TAG = "KeyboxXml";
+
+    private static XmlPullParserFactory sParserFactory;
+
+    private KeyboxXml() {
+    }
+
+    public static boolean isValid(String xml) {
+        boolean hasEcdsaKey = false, hasRsaKey = false;
+        boolean hasEcdsaPrivKey = false, hasRsaPrivKey = false;
+        int ecdsaCertCount = 0, rsaCertCount = 0;
+        int numberOfKeyboxes = -1;
+
+        try {
+            XmlPullParser parser = getParserFactory().newPullParser();
+            parser.setInput(new StringReader(xml));
+
+            String currentAlg = null;
+
+            for (int eventType = parser.next(); eventType != XmlPullParser.END_DOCUMENT; eventType = parser.next()) {
+                if (eventType == XmlPullParser.START_TAG) {
+                    String name = parser.getName();
+                    switch (name) {
+                        case "NumberOfKeyboxes":
+                            parser.next(); // move to TEXT event
+                            if (parser.getEventType() == XmlPullParser.TEXT) {
+                                try {
+                                    numberOfKeyboxes = Integer.parseInt(parser.getText().trim());
+                                } catch (NumberFormatException e) {
+                                    numberOfKeyboxes = -1;
+                                }
+                            }
+                            break;
+
+                        case "Key":
+                            currentAlg = parser.getAttributeValue(null, "algorithm");
+                            if ("ecdsa".equalsIgnoreCase(currentAlg)) {
+                                hasEcdsaKey = true;
+                            } else if ("rsa".equalsIgnoreCase(currentAlg)) {
+                                hasRsaKey = true;
+                            } else {
+                                currentAlg = null; // unsupported key
+                            }
+                            break;
+
+                        case "PrivateKey": {
+                            String format = parser.getAttributeValue(null, "format");
+                            if (!"pem".equalsIgnoreCase(format)) {
+                                Log.w(TAG, "Invalid or missing format for PrivateKey");
+                                return false;
+                            }
+                            if ("ecdsa".equalsIgnoreCase(currentAlg)) {
+                                hasEcdsaPrivKey = true;
+                            } else if ("rsa".equalsIgnoreCase(currentAlg)) {
+                                hasRsaPrivKey = true;
+                            }
+                            break;
+                        }
+
+                        case "Certificate": {
+                            String format = parser.getAttributeValue(null, "format");
+                            if (!"pem".equalsIgnoreCase(format)) {
+                                Log.w(TAG, "Invalid or missing format for Certificate");
+                                return false;
+                            }
+
+                            if ("ecdsa".equalsIgnoreCase(currentAlg)) {
+                                ecdsaCertCount++;
+                            } else if ("rsa".equalsIgnoreCase(currentAlg)) {
+                                rsaCertCount++;
+                            }
+                            break;
+                        }
+                    }
+                } else if (eventType == XmlPullParser.END_TAG && "Key".equals(parser.getName())) {
+                    currentAlg = null;
+                }
+            }
+        } catch (Exception e) {
+            Log.e(TAG, "XML validation failed", e);
+            return false;
+        }
+
+        return numberOfKeyboxes == 1
+                && hasEcdsaKey && hasEcdsaPrivKey && ecdsaCertCount >= 1
+                && hasRsaKey && hasRsaPrivKey && rsaCertCount >= 1;
+    }
+
+    private static synchronized XmlPullParserFactory getParserFactory()
+            throws XmlPullParserException {
+        // The factory lookup is the expensive part, parsers are cheap to create
+        if (sParserFactory == null) {
+            sParserFactory = XmlPullParserFactory.newInstance();
+        }
+        return sParserFactory;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.utils;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Codec for the pipe separated package lists kept in settings.
+ *
+ * Plain Java on purpose, so the hot path can be exercised off device.
+ */
+public class PackageListUtils {
+
+    public static final char SEPARATOR = '|';
+
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    /* splits the list without going through a regex, empty items are skipped */
+    public static List<String> split(String value) {
+        if (value == null || value.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        final List<String> items = new ArrayList<>();
+        final int length = value.length();
+        int start = 0;
+        while (start <= length) {
+            int end = value.indexOf(SEPARATOR, start);
+            if (end < 0) {
+                end = length;
+            }
+            if (end > start) {
+                items.add(value.substring(start, end));
+            }
+            start = end + 1;
+        }
+        return items;
+    }
+
+    public static String join(Iterable<?> items) {
+        final StringBuilder builder = new StringBuilder();
+        boolean first = true;
+        for (Object item : items) {
+            if (!first) {
+                builder.append(SEPARATOR);
+            }
+            builder.append(item);
+            first = false;
+        }
+        return builder.toString();
+    }
+
+    /* lower case and without accents, so accented labels match plain queries */
+    public static String normalizeForSearch(String value) {
+        if (value == null || value.isEmpty()) {
+            return "";
+        }
+        final String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        return MARKS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+}
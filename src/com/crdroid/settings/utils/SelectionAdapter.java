@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.crdroid.settings.utils;
+
+import androidx.annotation.NonNull;
+import androidx.recyclerview.widget.RecyclerView;
+
+import java.util.List;
+
+/**
+ * Adapter of a single choice picker. Moving the selection only rebinds the
+ * activated state of the items involved, their previews aren't reloaded.
+ */
+public abstract class SelectionAdapter<VH extends RecyclerView.ViewHolder>
+        extends RecyclerView.Adapter<VH> {
+
+    private static final Object PAYLOAD_ACTIVATED = new Object();
+
+    protected abstract boolean isSelected(int position);
+
+    @Override
+    public void onBindViewHolder(@NonNull VH holder, int position,
+            @NonNull List<Object> payloads) {
+        if (payloads.contains(PAYLOAD_ACTIVATED)) {
+            holder.itemView.setActivated(isSelected(position));
+            return;
+        }
+        onBindViewHolder(holder, position);
+    }
+
+    /** Rebinds the activated state of the item, ignored for a negative position. */
+    protected void notifyActivatedChanged(int position) {
+        if (position >= 0) {
+            notifyItemChanged(position, PAYLOAD_ACTIVATED);
+        }
+    }
+}
@@ -0,0 +1,205 @@
+#!/usr/bin/env python3
+#
+# Copyright (C) 2016-2025 crDroid Android Project
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+# http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+
+"""Generates SettingsKeyRegistry.java from the preference screens in res/xml.
+
+Every preference backed by one of the crDroid settings stores contributes its
+key, table, value type and XML default. Run it after touching res/xml, or with
+--check to fail when the checked in registry is out of date.
+"""
+
+import argparse
+import os
+import sys
+import xml.etree.ElementTree as ET
+
+ANDROID_NS = '{http://schemas.android.com/apk/res/android}'
+PKG = 'com.crdroid.settings.preferences'
+
+# Keep in sync with the SettingsTable enum, the generated code stores ordinals
+TABLES = ['SYSTEM', 'SECURE', 'GLOBAL', 'LINEAGE_SYSTEM', 'LINEAGE_SECURE']
+TYPES = ['BOOLEAN', 'INT', 'STRING']
+
+# Preference class -> (table, type)
+PREFERENCES = {
+    PKG + '.SystemSettingSwitchPreference': ('SYSTEM', 'BOOLEAN'),
+    PKG + '.SystemSettingListPreference': ('SYSTEM', 'STRING'),
+    PKG + '.SystemSettingSeekBarPreference': ('SYSTEM', 'INT'),
+    PKG + '.colorpicker.SystemSettingColorPickerPreference': ('SYSTEM', 'INT'),
+    PKG + '.SecureSettingSwitchPreference': ('SECURE', 'BOOLEAN'),
+    PKG + '.SecureSettingListPreference': ('SECURE', 'STRING'),
+    PKG + '.SecureSettingSeekBarPreference': ('SECURE', 'INT'),
+    PKG + '.colorpicker.SecureSettingColorPickerPreference': ('SECURE', 'INT'),
+    PKG + '.GlobalSettingSwitchPreference': ('GLOBAL', 'BOOLEAN'),
+    PKG + '.GlobalSettingListPreference': ('GLOBAL', 'STRING'),
+    PKG + '.GlobalSettingSeekBarPreference': ('GLOBAL', 'INT'),
+    PKG + '.LineageSystemSettingSeekBarPreference': ('LINEAGE_SYSTEM', 'INT'),
+    PKG + '.LineageSecureSettingSeekBarPreference': ('LINEAGE_SECURE', 'INT'),
+}
+
+HEADER = '''/*
+ * Copyright (C) 2016-2025 crDroid Android Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+// Generated by tools/gen_settings_key_registry.py from res/xml, do not edit.
+
+package com.crdroid.settings.preferences;
+
+import com.android.settings.R;
+
+final class SettingsKeyRegistry {
+
+    private SettingsKeyRegistry() {
+    }
+'''
+
+
+def collect(xml_dir):
+    keys = []       # (table, key, type, default)
+    index = {}      # (table, key) -> position in keys
+    screens = []    # (screen name, [key positions])
+    for name in sorted(os.listdir(xml_dir)):
+        if not name.endswith('.xml'):
+            continue
+        root = ET.parse(os.path.join(xml_dir, name)).getroot()
+        positions = []
+        for element in root.iter():
+            pref = PREFERENCES.get(element.tag)
+            if pref is None:
+                continue
+            key = element.get(ANDROID_NS + 'key')
+            if not key:
+                continue
+            if key.startswith('@'):
+                sys.exit('%s: resource keys are not supported: %s' % (name, key))
+            table, value_type = pref
+            default = element.get(ANDROID_NS + 'defaultValue')
+            if default is not None and default.startswith('@'):
+                # Resolved at runtime by the preference itself
+                default = None
+            if (table, key) not in index:
+                index[(table, key)] = len(keys)
+                keys.append((table, key, value_type, default))
+            elif keys[index[(table, key)]][3] != default:
+                print('warning: %s: %s/%s has conflicting defaults'
+                      % (name, table, key), file=sys.stderr)
+            if index[(table, key)] not in positions:
+                positions.append(index[(table, key)])
+        if positions:
+            screens.append((name[:-len('.xml')], positions))
+    return keys, screens
+
+
+def java_string(value):
+    if value is None:
+        return 'null'
+    return '"' + value.replace('\\', '\\\\').replace('"', '\\"') + '"'
+
+
+def wrap(items, indent='            '):
+    lines = []
+    line = indent
+    for item in items:
+        piece = item + ', '
+        if len(line) + len(piece) > 100 and line.strip():
+            lines.append(line.rstrip())
+            line = indent
+        line += piece
+    if line.strip():
+        lines.append(line.rstrip())
+    return '\n'.join(lines)
+
+
+def generate(keys, screens):
+    out = [HEADER]
+    out.append('    static final int TYPE_BOOLEAN = 0;')
+    out.append('    static final int TYPE_INT = 1;')
+    out.append('    static final int TYPE_STRING = 2;')
+    out.append('')
+    out.append('    /** Setting names, indexed like the arrays below. */')
+    out.append('    static final String[] KEYS = {')
+    out.append(wrap(java_string(k[1]) for k in keys))
+    out.append('    };')
+    out.append('')
+    out.append('    /** {@link SettingsTable} ordinals. */')
+    out.append('    static final byte[] TABLES = {')
+    out.append(wrap(str(TABLES.index(k[0])) for k in keys))
+    out.append('    };')
+    out.append('')
+    out.append('    static final byte[] TYPES = {')
+    out.append(wrap(str(TYPES.index(k[2])) for k in keys))
+    out.append('    };')
+    out.append('')
+    out.append('    /** The android:defaultValue of the preference, null if unset or a resource. */')
+    out.append('    static final String[] DEFAULTS = {')
+    out.append(wrap(java_string(k[3]) for k in keys))
+    out.append('    };')
+    out.append('')
+    out.append('    static final int[] SCREENS = {')
+    out.append(wrap('R.xml.' + s[0] for s in screens))
+    out.append('    };')
+    out.append('')
+    out.append('    /** Indexes of the keys declared by each of {@link #SCREENS}. */')
+    out.append('    static final int[][] SCREEN_KEYS = {')
+    for name, positions in screens:
+        out.append('            // ' + name)
+        out.append('            {')
+        out.append(wrap((str(p) for p in positions), '                '))
+        out.append('            },')
+    out.append('    };')
+    out.append('}')
+    return '\n'.join(out) + '\n'
+
+
+def main():
+    top = os.path.dirname(os.path.dirname(os.path.abspath(__file__)))
+    parser = argparse.ArgumentParser(description=__doc__)
+    parser.add_argument('--res', default=os.path.join(top, 'res', 'xml'))
+    parser.add_argument('--out', default=os.path.join(
+            top, 'src', 'com', 'crdroid', 'settings', 'preferences',
+            'SettingsKeyRegistry.java'))
+    parser.add_argument('--check', action='store_true',
+                        help='only verify that the output is up to date')
+    args = parser.parse_args()
+
+    content = generate(*collect(args.res))
+    if args.check:
+        try:
+            with open(args.out) as f:
+                current = f.read()
+        except IOError:
+            current = None
+        if current != content:
+            sys.exit('%s is out of date, run %s' % (args.out, sys.argv[0]))
+        return
+    with open(args.out, 'w') as f:
+        f.write(content)
+
+
+if __name__ == '__main__':
+    main()